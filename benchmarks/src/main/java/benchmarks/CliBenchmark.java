@@ -0,0 +1,75 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the command line path, output of the program is discarded
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CliBenchmark {
+    @Param({"16", "64"})
+    public int alphabetSize;
+
+    @Param({"12"})
+    public int caseLength;
+
+    @Param({"100000"})
+    public int caseCount;
+
+    @Param({"200"})
+    public int variantsCount;
+
+    @Param({"1.0"})
+    public double variantSkew;
+
+    @Param({"0.3"})
+    public double parallelRatio;
+
+    private Path logFile;
+    private Method main;
+    private PrintStream standardOutput;
+
+    @Setup(Level.Trial)
+    public void prepareLog() throws IOException, ReflectiveOperationException {
+        logFile = Files.createTempFile("log-miner-benchmark", ".log");
+        new ProcessLogGenerator(alphabetSize, caseLength, caseCount, variantsCount, variantSkew, parallelRatio, 42L)
+                .writeTo(logFile);
+
+        // Main is in the default package, so it can be reached only by reflection
+        main = Class.forName("Main").getMethod("main", String[].class);
+    }
+
+    @Setup(Level.Iteration)
+    public void discardOutput() {
+        standardOutput = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void restoreOutput() {
+        System.setOut(standardOutput);
+    }
+
+    @TearDown(Level.Trial)
+    public void removeLog() throws IOException {
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void mineLogFile() throws ReflectiveOperationException {
+        main.invoke(null, (Object) new String[]{logFile.toString()});
+    }
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import parsers.ActivityRelationsBuilder;
+import parsers.FootprintAccumulator;
+import reader.MappedLogReader;
+import reader.ProcessLogReader;
+import structures.Activity;
+import structures.ActivityRelation;
+import structures.EntryPair;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of each mining phase on the same generated log
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmarks {
+    @Param({"8", "12"})
+    public int alphabetSize;
+
+    @Param({"6"})
+    public int caseLength;
+
+    @Param({"10000"})
+    public int caseCount;
+
+    @Param({"50"})
+    public int variantsCount;
+
+    @Param({"1.0"})
+    public double variantSkew;
+
+    @Param({"0.3"})
+    public double parallelRatio;
+
+    private String log;
+    private Path logFile;
+    private List<List<Activity>> cases;
+    private FootprintAccumulator footprint;
+    private List<EntryPair> allPairs;
+
+    @Setup(Level.Trial)
+    public void prepareLog() throws IOException {
+        ProcessLogGenerator generator = new ProcessLogGenerator(alphabetSize, caseLength, caseCount,
+                variantsCount, variantSkew, parallelRatio, 42L);
+        log = generator.generate();
+        logFile = Files.createTempFile("log-miner-benchmark", ".log");
+        generator.writeTo(logFile);
+
+        cases = new ProcessLogReader().readProcessLog(new Scanner(log));
+        footprint = new MappedLogReader().readFootprint(logFile);
+        allPairs = new ActivityRelationsBuilder().findRelationsBasedOnLog(cases);
+    }
+
+    @TearDown(Level.Trial)
+    public void removeLog() throws IOException {
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public List<List<Activity>> readProcessLog() {
+        return new ProcessLogReader().readProcessLog(new Scanner(log));
+    }
+
+    @Benchmark
+    public FootprintAccumulator readMappedFootprint() throws IOException {
+        return new MappedLogReader().readFootprint(logFile);
+    }
+
+    @Benchmark
+    public List<ActivityRelation> generateRelationsBetweenActivities() {
+        return new ActivityRelationsBuilder().generateRelationsBetweenActivities(cases);
+    }
+
+    @Benchmark
+    public List<EntryPair> findRelationsBasedOnLog() {
+        return new ActivityRelationsBuilder().findRelationsBasedOnLog(cases);
+    }
+
+    @Benchmark
+    public List<EntryPair> selectOnlyMaximumElements() {
+        return new ActivityRelationsBuilder().selectOnlyMaximumElements(allPairs);
+    }
+
+    @Benchmark
+    public List<EntryPair> findMaximumRelationsBasedOnFootprint() {
+        return new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(footprint);
+    }
+}
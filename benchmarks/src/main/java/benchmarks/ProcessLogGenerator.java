@@ -0,0 +1,156 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class ProcessLogGenerator {
+    private final int alphabetSize;
+    private final int caseLength;
+    private final int caseCount;
+    private final int variantsCount;
+    private final double variantSkew;
+    private final double parallelRatio;
+    private final long seed;
+
+    /**
+     * Deterministic generator of synthetic process logs.
+     * Process model is a sequence of blocks, activities are split between blocks.
+     * Block with one activity is a sequence step, bigger block is a choice (one activity is executed)
+     * or a parallel step (all activities in random order).
+     * Distinct traces (variants) are drawn from the model, cases pick variants with Zipf distribution.
+     *
+     * @param alphabetSize  Number of unique activities
+     * @param caseLength    Number of blocks in the model, so approximated length of a case
+     * @param caseCount     Number of cases (lines) in the log
+     * @param variantsCount Maximum number of distinct traces
+     * @param variantSkew   Zipf exponent for variants frequency, 0 means uniform
+     * @param parallelRatio Probability that block with many activities is parallel instead of choice
+     * @param seed          Seed of the random generator - the same seed gives the same log
+     */
+    public ProcessLogGenerator(int alphabetSize, int caseLength, int caseCount, int variantsCount,
+                               double variantSkew, double parallelRatio, long seed) {
+        this.alphabetSize = alphabetSize;
+        this.caseLength = Math.max(1, Math.min(caseLength, alphabetSize));
+        this.caseCount = caseCount;
+        this.variantsCount = Math.max(1, variantsCount);
+        this.variantSkew = variantSkew;
+        this.parallelRatio = parallelRatio;
+        this.seed = seed;
+    }
+
+    /**
+     * Activity names are single characters without empty spaces and line separators
+     *
+     * @param id Activity index
+     * @return Name of the activity
+     */
+    public static String activityName(int id) {
+        return id < 94 ? String.valueOf((char) ('!' + id)) : String.valueOf((char) (0x100 + id - 94));
+    }
+
+    public String generate() {
+        StringBuilder log = new StringBuilder();
+        forEachCase(caseRecord -> log.append(caseRecord).append('\n'));
+
+        return log.toString();
+    }
+
+    public void writeTo(Path logFile) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+            IOException[] failure = new IOException[1];
+            forEachCase(caseRecord -> {
+                if (failure[0] != null) return;
+                try {
+                    writer.write(caseRecord);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+        }
+    }
+
+    private void forEachCase(Consumer<String> sink) {
+        Random random = new Random(seed);
+        List<String> variants = generateVariants(generateBlocks(random), random);
+        double[] distribution = cumulativeDistribution(variants.size());
+
+        for (int caseRecord = 0; caseRecord < caseCount; caseRecord++) {
+            int rank = Arrays.binarySearch(distribution, random.nextDouble());
+            sink.accept(variants.get(Math.min(variants.size() - 1, rank < 0 ? -rank - 1 : rank)));
+        }
+    }
+
+    private List<Block> generateBlocks(Random random) {
+        List<Block> blocks = new ArrayList<>();
+        int nextActivity = 0;
+
+        for (int block = 0; block < caseLength; block++) {
+            int width = alphabetSize / caseLength + (block < alphabetSize % caseLength ? 1 : 0);
+            List<String> activities = new ArrayList<>();
+            for (int index = 0; index < width; index++) {
+                activities.add(activityName(nextActivity++));
+            }
+
+            blocks.add(new Block(activities, width > 1 && random.nextDouble() < parallelRatio));
+        }
+
+        return blocks;
+    }
+
+    private List<String> generateVariants(List<Block> blocks, Random random) {
+        Set<String> variants = new LinkedHashSet<>();
+        int attempts = variantsCount * 20;
+
+        while (variants.size() < variantsCount && attempts-- > 0) {
+            StringBuilder trace = new StringBuilder();
+            for (Block block : blocks) {
+                block.appendTo(trace, random);
+            }
+            variants.add(trace.toString());
+        }
+
+        return new ArrayList<>(variants);
+    }
+
+    private double[] cumulativeDistribution(int size) {
+        double[] distribution = new double[size];
+        double total = 0;
+
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, variantSkew);
+            distribution[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            distribution[rank] /= total;
+        }
+
+        return distribution;
+    }
+
+    private static class Block {
+        private final List<String> activities;
+        private final boolean parallel;
+
+        Block(List<String> activities, boolean parallel) {
+            this.activities = activities;
+            this.parallel = parallel;
+        }
+
+        void appendTo(StringBuilder trace, Random random) {
+            if (parallel) {
+                List<String> order = new ArrayList<>(activities);
+                Collections.shuffle(order, random);
+                order.forEach(trace::append);
+            } else {
+                trace.append(activities.get(random.nextInt(activities.size())));
+            }
+        }
+    }
+}
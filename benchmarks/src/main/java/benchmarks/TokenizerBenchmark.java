@@ -0,0 +1,64 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
+import reader.MappedLogReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest of the same process log with activity names of growing length
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+    @Param({"1", "8", "32"})
+    public int nameLength;
+
+    private Path logFile;
+
+    @Setup(Level.Trial)
+    public void prepareLog() throws IOException {
+        String log = new ProcessLogGenerator(12, 6, 100000, 50, 1.0, 0.3, 42L).generate();
+        logFile = Files.createTempFile("log-miner-benchmark", ".log");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+            for (int position = 0; position < log.length(); position++) {
+                char activity = log.charAt(position);
+                if (activity == '\n') {
+                    writer.write('\n');
+                    continue;
+                }
+
+                for (int index = 1; index < nameLength; index++) {
+                    writer.write('_');
+                }
+                writer.write(activity);
+                writer.write(' ');
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void removeLog() throws IOException {
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public FootprintAccumulator readWhitespaceSeparatedNames() throws IOException {
+        MappedLogReader reader = new MappedLogReader();
+        reader.setTokenizer(Tokenizer.whitespace());
+
+        return reader.readFootprint(logFile);
+    }
+}
@@ -1,37 +1,499 @@
+import cli.BatchMiner;
+import cli.CommandLineOptions;
+import cli.LogFileCollector;
+import metrics.MiningMetrics;
 import parsers.ActivityRelationsBuilder;
-import reader.ProcessLogReader;
-import structures.Activity;
+import parsers.FootprintAccumulator;
+import parsers.FootprintSnapshot;
+import parsers.SlidingWindow;
+import parsers.SuccessionThreshold;
+import parsers.Tokenizer;
+import reader.GzipLogReader;
+import reader.LogFollower;
+import reader.ParallelLogReader;
+import reader.SamplingLogReader;
+import server.MiningServer;
 import structures.EntryPair;
+import structures.VariantTable;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.List;
-import java.util.Scanner;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
 
 public class Main {
+    private static final Set<String> OPTIONS = Set.of("threads", "follow", "poll-interval", "snapshot", "tokenizer", "metrics",
+            "batch", "output", "serve", "port", "cache-size", "window", "window-millis",
+            "variant-memory", "limit", "top", "shard", "merge", "threshold",
+            "sample", "sample-bytes", "sample-regions");
+
     public static void main(String[] args) {
-        if (args.length != 1) {
+        CommandLineOptions options;
+        try {
+            options = new CommandLineOptions(args, OPTIONS);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        try {
+            if (options.has("variant-memory")) {
+                VariantTable.setDefaultMemoryBudget(options.getLong("variant-memory", 256) << 20);
+            }
+            if (options.getLong("limit", 0) < 0 || options.getInt("top", 0) < 0) {
+                System.err.println("Options --limit and --top expect a positive number");
+                return;
+            }
+            threshold(options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        if (options.has("serve")) {
+            serve(options);
+            return;
+        }
+
+        if (options.has("batch")) {
+            batch(options);
+            return;
+        }
+
+        if (options.has("merge")) {
+            merge(options);
+            return;
+        }
+
+        if (options.arguments().size() != 1) {
             System.err.println("You should call program with one parameter - reference to log file");
             return;
         }
 
+        Path logFile = Paths.get(options.arguments().get(0));
+        if (!Files.exists(logFile)) {
+            System.err.println("Log file not found. Check reference and run again");
+            return;
+        }
+
+        try {
+            if (!Files.isReadable(logFile)) {
+                System.err.println("Log file can not be read");
+            } else if ((options.has("follow") || options.has("snapshot") || options.has("window") || options.has("window-millis")
+                    || sampling(options)) && GzipLogReader.isGzip(logFile)) {
+                System.err.println("Compressed log file can only be read whole, without --follow, --snapshot, --window and --sample");
+            } else if (options.has("threshold") && (options.has("follow") || options.has("window") || options.has("window-millis"))) {
+                System.err.println("Option --threshold can only be used when mining whole log or merged partials");
+            } else if (options.has("window") || options.has("window-millis")) {
+                if (options.has("snapshot")) {
+                    System.err.println("Option --snapshot can not be used with sliding window");
+                    return;
+                }
+                if (options.has("follow")) MiningMetrics.registerMBean();
+                window(logFile, options.has("follow"), options.getLong("poll-interval", 100), tokenizer(options),
+                        new SlidingWindow(options.getInt("window", 0), options.getLong("window-millis", 0)));
+            } else if (sampling(options)) {
+                if (options.has("follow") || options.has("snapshot") || options.has("window") || options.has("window-millis") || options.has("shard")) {
+                    System.err.println("Options --follow, --snapshot, --window and --shard can not be used with sampling");
+                    return;
+                }
+                sample(logFile, new SamplingLogReader(options.has("sample") ? options.getLong("sample", 10000) : 0,
+                                options.getLong("sample-bytes", 0), options.getInt("sample-regions", 1)),
+                        tokenizer(options), threshold(options), options.getLong("limit", Long.MAX_VALUE), options.getInt("top", 0));
+
+                if (options.has("metrics")) {
+                    System.err.println(MiningMetrics.global().toJson());
+                }
+            } else if (options.has("shard")) {
+                shard(logFile, options.getInt("threads", Runtime.getRuntime().availableProcessors()), tokenizer(options),
+                        Paths.get(options.get("shard", "")));
+            } else if (options.has("follow")) {
+                MiningMetrics.registerMBean();
+                follow(logFile, options.getLong("poll-interval", 100), tokenizer(options), snapshotFile(options));
+            } else {
+                mine(logFile, options.getInt("threads", Runtime.getRuntime().availableProcessors()),
+                        tokenizer(options), snapshotFile(options), threshold(options), options.getLong("limit", Long.MAX_VALUE), options.getInt("top", 0));
+
+                if (options.has("metrics")) {
+                    System.err.println(MiningMetrics.global().toJson());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Log file can not be read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run mining server until the process is stopped
+     */
+    private static void serve(CommandLineOptions options) {
+        try {
+            MiningServer server = new MiningServer(options.getInt("port", 8080),
+                    options.getInt("threads", Runtime.getRuntime().availableProcessors()), options.getInt("cache-size", 1024));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            MiningMetrics.registerMBean();
+
+            System.err.println("Listening on http://localhost:" + server.getPort());
+            Thread.currentThread().join();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Server can not be started: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Mine many log files (directories, globs or `@file lists`) in one JVM.
+     * Results are printed as `path<TAB>pair` lines or written as separate files to the output directory,
+     * always in order of paths. Errors are reported in the same order and do not stop the batch.
+     */
+    private static void batch(CommandLineOptions options) {
+        try {
+            if (options.arguments().isEmpty()) {
+                System.err.println("You should call batch mode with directories, globs or file lists");
+                return;
+            }
+            if (options.has("follow") || options.has("snapshot")) {
+                System.err.println("Options --follow and --snapshot can not be used in batch mode");
+                return;
+            }
+
+            LogFileCollector collector = new LogFileCollector();
+            for (String source : options.arguments()) {
+                collector.add(source);
+            }
+
+            Path outputDirectory = options.has("output") ? Paths.get(options.get("output", ".")) : null;
+            BatchMiner miner = new BatchMiner(options.getInt("threads", Runtime.getRuntime().availableProcessors()), tokenizer(options));
+            long[] failures = new long[1];
+
+            miner.mine(collector.logFiles(), result -> {
+                if (result.getError() != null) {
+                    failures[0]++;
+                    System.err.println(result.getLogFile() + ": " + result.getError());
+                } else if (outputDirectory != null) {
+                    writeResult(outputDirectory, result);
+                } else {
+                    for (EntryPair pair : result.getPairs()) {
+                        System.out.println(result.getLogFile() + "\t" + pair);
+                    }
+                }
+            });
+
+            System.out.flush();
+            System.err.println("Mined " + (collector.logFiles().size() - failures[0]) + " of " + collector.logFiles().size() + " log files");
+            if (options.has("metrics")) {
+                System.err.println(MiningMetrics.global().toJson());
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Log files can not be listed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write pairs to `output/<path of log file>.pairs`, directories of log files are kept, so names do not collide
+     */
+    private static void writeResult(Path outputDirectory, BatchMiner.Result result) {
+        Path logFile = result.getLogFile();
+        Path relative = logFile.isAbsolute() ? logFile.getRoot().relativize(logFile) : logFile;
+        Path resultFile = outputDirectory.resolve(relative.toString() + ".pairs");
+
+        try {
+            Files.createDirectories(resultFile.toAbsolutePath().getParent());
+            List<String> lines = new ArrayList<>(result.getPairs().size());
+            for (EntryPair pair : result.getPairs()) {
+                lines.add(pair.toString());
+            }
+            Files.write(resultFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println(logFile + ": Result can not be written: " + e);
+        }
+    }
+
+    private static Tokenizer tokenizer(CommandLineOptions options) {
+        return Tokenizer.parse(options.get("tokenizer", "char"));
+    }
+
+    private static boolean sampling(CommandLineOptions options) {
+        return options.has("sample") || options.has("sample-bytes");
+    }
+
+    private static SuccessionThreshold threshold(CommandLineOptions options) {
+        return options.has("threshold") ? SuccessionThreshold.parse(options.get("threshold", "")) : SuccessionThreshold.NONE;
+    }
+
+    private static Path snapshotFile(CommandLineOptions options) {
+        return options.has("snapshot") ? Paths.get(options.get("snapshot", "")) : null;
+    }
+
+    /**
+     * Read slice of a big log and write its partial footprint, pairs are found later by `--merge`
+     */
+    private static void shard(Path logFile, int threads, Tokenizer tokenizer, Path partialFile) throws IOException {
+        FootprintAccumulator processLog = read(logFile, threads, tokenizer, null);
+        long length = Files.size(logFile);
+
+        new FootprintSnapshot(processLog, length, FootprintSnapshot.logChecksum(logFile, length), tokenizer).write(partialFile);
+        System.err.println("Partial footprint of " + processLog.getCasesCount() + " cases and "
+                + processLog.getDictionary().size() + " activities written to " + partialFile);
+    }
+
+    /**
+     * Merge partial footprints given in log order, then print maximal pairs or, with `--shard`, write merged partial
+     */
+    private static void merge(CommandLineOptions options) {
+        if (options.arguments().isEmpty()) {
+            System.err.println("You should call merge mode with partial footprint files in log order");
+            return;
+        }
+
         try {
-            File logFile = new File(args[0]);
-            if (logFile.exists() && logFile.canRead()) {
-                Scanner logFileScanner = new Scanner(new File(args[0]));
+            List<Path> partialFiles = new ArrayList<>();
+            for (String argument : options.arguments()) {
+                partialFiles.add(Paths.get(argument));
+            }
+
+            FootprintSnapshot merged;
+            try (MiningMetrics.Phase phase = MiningMetrics.global().phase("merge")) {
+                merged = FootprintSnapshot.merge(partialFiles);
+                phase.setItems(partialFiles.size());
+            }
+
+            if (options.has("shard")) {
+                merged.write(Paths.get(options.get("shard", "")));
+            } else {
+                print(merged.getAccumulator(), threshold(options), options.getLong("limit", Long.MAX_VALUE), options.getInt("top", 0));
+            }
+
+            if (options.has("metrics")) {
+                System.err.println(MiningMetrics.global().toJson());
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Partial footprint can not be merged: " + e.getMessage());
+        }
+    }
 
-                ProcessLogReader reader = new ProcessLogReader();
-                List<List<Activity>> processLog = reader.readProcessLog(logFileScanner);
+    /**
+     * Read whole log file and print maximal pairs as soon as they are found
+     */
+    private static void mine(Path logFile, int threads, Tokenizer tokenizer, Path snapshotFile, SuccessionThreshold threshold,
+                             long limit, int top) throws IOException {
+        FootprintAccumulator processLog;
+        try (MiningMetrics.Phase phase = MiningMetrics.global().phase("read")) {
+            processLog = read(logFile, threads, tokenizer, snapshotFile);
+            phase.setItems(processLog.getCasesCount());
+        }
+
+        print(processLog, threshold, limit, top);
+    }
+
+    /**
+     * Read log only until its footprint converges, print maximal pairs of the sample and report the sample size,
+     * so the user can decide whether an exact run is needed
+     */
+    private static void sample(Path logFile, SamplingLogReader reader, Tokenizer tokenizer, SuccessionThreshold threshold,
+                               long limit, int top) throws IOException {
+        SamplingLogReader.Sample sample;
+        reader.setTokenizer(tokenizer);
+        try (MiningMetrics.Phase phase = MiningMetrics.global().phase("read")) {
+            sample = reader.readSample(logFile);
+            phase.setItems(sample.getCasesCount());
+        }
+
+        print(sample.getAccumulator(), threshold, limit, top);
+        System.err.println("Sampled " + sample.getCasesCount() + " cases (" + sample.getBytesRead() + " of " + sample.getLogSize()
+                + " bytes, " + (sample.getLogSize() == 0 ? 100 : sample.getBytesRead() * 100 / sample.getLogSize()) + "%), footprint last changed at case "
+                + sample.getConvergedAtCase() + " (byte " + sample.getConvergedAtByte() + ")"
+                + (sample.isConverged() ? "" : ", whole log was read before the footprint converged"));
+    }
 
-                ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
-                List<EntryPair> relationsBasedOnLog = builder.findRelationsBasedOnLog(processLog);
+    /**
+     * Print maximal pairs as soon as they are found.
+     * With top only the biggest pairs are printed, the biggest first.
+     * Successions which do not pass the threshold are treated as noise.
+     */
+    private static void print(FootprintAccumulator processLog, SuccessionThreshold threshold, long limit, int top) {
+        ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
+        MiningMetrics.global().recordLog(processLog.getCasesCount(), processLog.getVariantsCount(), processLog.getDictionary().size());
+        PrintWriter output = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
 
-                builder.selectOnlyMaximumElements(relationsBasedOnLog).forEach(System.out::println);
+        try (MiningMetrics.Phase phase = MiningMetrics.global().phase("enumerate")) {
+            if (top > 0) {
+                List<EntryPair> largest = builder.findLargestRelationsBasedOnLog(processLog, threshold, top);
+                largest.stream().limit(limit).forEach(output::println);
+                phase.setItems(Math.min(largest.size(), limit));
             } else {
-                System.err.println("Log file can not be read");
+                try (Stream<EntryPair> pairs = builder.streamMaximumRelationsBasedOnLog(processLog, threshold)) {
+                    long[] printed = {0};
+                    pairs.limit(limit).forEach(pair -> {
+                        output.println(pair);
+                        printed[0]++;
+                    });
+                    phase.setItems(printed[0]);
+                }
             }
-        } catch (FileNotFoundException e) {
-            System.err.println("Log file not found. Check reference and run again");
         }
+
+        output.flush();
+    }
+
+    /**
+     * Read footprint of the log file.
+     * With snapshot only bytes appended since the snapshot was written are read, then the snapshot is updated.
+     * Snapshot ends at the last line separator, last line without separator is mined now but read again next time,
+     * so a line still being written is not split into two cases.
+     */
+    private static FootprintAccumulator read(Path logFile, int threads, Tokenizer tokenizer, Path snapshotFile) throws IOException {
+        ParallelLogReader reader = new ParallelLogReader(threads);
+        reader.setTokenizer(tokenizer);
+        if (snapshotFile == null) {
+            return reader.readFootprint(logFile);
+        }
+
+        long length = FootprintSnapshot.completeLength(logFile);
+        LogFollower follower = resume(logFile, snapshotFile, 0, tokenizer);
+        if (follower != null) {
+            follower.readAppended(length);
+        } else {
+            reader.setTrackVariants(true);
+            follower = new LogFollower(logFile, 0, reader.readFootprint(logFile, length), length);
+            follower.setTokenizer(tokenizer);
+        }
+
+        FootprintAccumulator processLog = follower.getAccumulator();
+        long offset = follower.getOffset();
+        new FootprintSnapshot(processLog, offset, FootprintSnapshot.logChecksum(logFile, offset), tokenizer).write(snapshotFile);
+
+        follower.readAppended();
+        follower.finish();
+        return processLog;
+    }
+
+    /**
+     * Watch growing log file, after each change of the footprint print new (+) and removed (-) maximal pairs
+     */
+    private static void follow(Path logFile, long pollIntervalMillis, Tokenizer tokenizer, Path snapshotFile) throws IOException {
+        ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
+        Set<EntryPair> previousPairs = new LinkedHashSet<>();
+
+        LogFollower follower = snapshotFile == null ? null : resume(logFile, snapshotFile, pollIntervalMillis, tokenizer);
+        if (follower == null) {
+            follower = new LogFollower(logFile, pollIntervalMillis);
+            follower.setTokenizer(tokenizer);
+        }
+
+        long[] recorded = new long[3];
+        try {
+            follower.follow(processLog -> {
+                recordGrowth(recorded, processLog);
+                printChanges(previousPairs, builder.findMaximumRelationsBasedOnLog(processLog));
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Metrics are totals over mined logs, so followed log adds only cases, variants and activities since the last change
+     *
+     * @param recorded Cases, variants and activities recorded so far, updated in place
+     */
+    private static void recordGrowth(long[] recorded, FootprintAccumulator processLog) {
+        long[] current = {processLog.getCasesCount(), processLog.getVariantsCount(), processLog.getDictionary().size()};
+        MiningMetrics.global().recordLog(current[0] - recorded[0], current[1] < 0 ? -1 : current[1] - recorded[1], current[2] - recorded[2]);
+        System.arraycopy(current, 0, recorded, 0, current.length);
+    }
+
+    /**
+     * Mine only the most recent cases of the log file.
+     * Without follow the maximal pairs of the last cases are printed once, with follow new (+) and removed (-)
+     * maximal pairs are printed each time cases entering or leaving the window change the footprint.
+     */
+    private static void window(Path logFile, boolean follow, long pollIntervalMillis, Tokenizer tokenizer, SlidingWindow window)
+            throws IOException {
+        LogFollower follower = new LogFollower(logFile, pollIntervalMillis);
+        follower.setTokenizer(tokenizer);
+        follower.getAccumulator().setTraceSink(window);
+
+        if (!follow) {
+            follower.readAppended();
+            follower.finish();
+            window.maximalPairs().forEach(System.out::println);
+            return;
+        }
+
+        Set<EntryPair> previousPairs = new LinkedHashSet<>();
+        long[] reportedChanges = {0};
+        try {
+            follower.watch(() -> {
+                window.expire(System.currentTimeMillis());
+                if (window.getChangesCount() == reportedChanges[0]) return;
+
+                reportedChanges[0] = window.getChangesCount();
+                printChanges(previousPairs, window.maximalPairs());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Print new (+) and removed (-) maximal pairs, then remember current pairs as previous
+     */
+    private static void printChanges(Set<EntryPair> previousPairs, List<EntryPair> pairs) {
+        Set<EntryPair> currentPairs = new LinkedHashSet<>(pairs);
+
+        for (EntryPair pair : previousPairs) {
+            if (!currentPairs.contains(pair)) System.out.println("- " + pair);
+        }
+        for (EntryPair pair : currentPairs) {
+            if (!previousPairs.contains(pair)) System.out.println("+ " + pair);
+        }
+        System.out.flush();
+
+        previousPairs.clear();
+        previousPairs.addAll(currentPairs);
+    }
+
+    /**
+     * Continue footprint from the snapshot when log file was not rewritten since the snapshot was written
+     *
+     * @return Follower positioned after the bytes included in the snapshot or null when snapshot can not be used
+     */
+    private static LogFollower resume(Path logFile, Path snapshotFile, long pollIntervalMillis, Tokenizer tokenizer) {
+        if (!Files.exists(snapshotFile)) return null;
+
+        try {
+            FootprintSnapshot snapshot = FootprintSnapshot.read(snapshotFile);
+            if (snapshot.matches(logFile, tokenizer)) {
+                LogFollower follower = new LogFollower(logFile, pollIntervalMillis, snapshot.getAccumulator(), snapshot.getOffset());
+                follower.setTokenizer(tokenizer);
+                return follower;
+            }
+            System.err.println(snapshot.getTokenizer().toString().equals(tokenizer.toString())
+                    ? "Log file changed since the snapshot was written, reading whole log"
+                    : "Snapshot was written with tokenizer " + snapshot.getTokenizer() + ", reading whole log");
+        } catch (IOException e) {
+            System.err.println(e.getMessage() + ", reading whole log");
+        }
+
+        return null;
     }
 }
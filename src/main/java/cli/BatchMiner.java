@@ -0,0 +1,124 @@
+package cli;
+
+import metrics.MiningMetrics;
+import parsers.ActivityRelationsBuilder;
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
+import reader.MappedLogReader;
+import structures.EntryPair;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+public class BatchMiner {
+    private final int threads;
+    private final Tokenizer tokenizer;
+
+    /**
+     * Miner of many log files in one JVM.
+     * Each file is mined by a single worker, workers share the pool, so small files do not wait for big ones.
+     * Results are delivered in order of files, not in order of completion.
+     *
+     * @param threads   Number of workers
+     * @param tokenizer Rules which split case records into activity names
+     */
+    public BatchMiner(int threads, Tokenizer tokenizer) {
+        this.threads = Math.max(1, threads);
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Mine all files, only a few results wait for delivery at once, so memory does not grow with number of files
+     *
+     * @param logFiles Log files in order of delivery
+     * @param sink     Receiver of results, called from the calling thread
+     * @throws InterruptedException When thread was interrupted
+     */
+    public void mine(List<Path> logFiles, Consumer<Result> sink) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Deque<Future<Result>> pending = new ArrayDeque<>();
+        int delivered = 0;
+
+        try {
+            for (Path logFile : logFiles) {
+                if (pending.size() == threads * 2) {
+                    sink.accept(await(pending.removeFirst(), logFiles.get(delivered++)));
+                }
+                pending.addLast(workers.submit(() -> mine(logFile)));
+            }
+
+            while (!pending.isEmpty()) {
+                sink.accept(await(pending.removeFirst(), logFiles.get(delivered++)));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Wait for the result, failure which escaped the job (for example OutOfMemoryError) is reported for its file
+     */
+    private static Result await(Future<Result> result, Path logFile) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return new Result(logFile, null, "Log file can not be mined: " + e.getCause());
+        }
+    }
+
+    /**
+     * Mine single file, failure is stored in the result, so one broken file does not stop the batch
+     *
+     * @param logFile Path to log file
+     * @return Maximal pairs or error
+     */
+    Result mine(Path logFile) {
+        try {
+            MappedLogReader reader = new MappedLogReader();
+            reader.setTokenizer(tokenizer);
+            FootprintAccumulator processLog = reader.readFootprint(logFile);
+            MiningMetrics.global().recordLog(processLog.getCasesCount(), processLog.getVariantsCount(), processLog.getDictionary().size());
+
+            return new Result(logFile, new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(processLog), null);
+        } catch (IOException e) {
+            return new Result(logFile, null, "Log file can not be read: " + e);
+        } catch (RuntimeException e) {
+            return new Result(logFile, null, "Log file can not be mined: " + e);
+        }
+    }
+
+    public static class Result {
+        private final Path logFile;
+        private final List<EntryPair> pairs;
+        private final String error;
+
+        Result(Path logFile, List<EntryPair> pairs, String error) {
+            this.logFile = logFile;
+            this.pairs = pairs;
+            this.error = error;
+        }
+
+        public Path getLogFile() {
+            return logFile;
+        }
+
+        /**
+         * @return Maximal pairs, null when mining failed
+         */
+        public List<EntryPair> getPairs() {
+            return pairs;
+        }
+
+        /**
+         * @return Description of the failure, null when mining succeeded
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
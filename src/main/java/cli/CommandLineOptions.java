@@ -0,0 +1,87 @@
+package cli;
+
+import java.util.*;
+
+public class CommandLineOptions {
+    private final Map<String, String> options = new HashMap<>();
+    private final List<String> arguments = new ArrayList<>();
+
+    /**
+     * Parse program parameters.
+     * Options are written as `--name` (flag) or `--name=value`, all other parameters are arguments.
+     *
+     * @param args         Program parameters
+     * @param knownOptions Names of supported options (without `--`)
+     * @throws IllegalArgumentException When option is not supported
+     */
+    public CommandLineOptions(String[] args, Set<String> knownOptions) {
+        for (String parameter : args) {
+            if (!parameter.startsWith("--")) {
+                arguments.add(parameter);
+                continue;
+            }
+
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter.substring(2) : parameter.substring(2, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+
+            if (!knownOptions.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            options.put(name, value);
+        }
+    }
+
+    public boolean has(String name) {
+        return options.containsKey(name);
+    }
+
+    /**
+     * @param name         Name of the option
+     * @param defaultValue Value used when option is missing
+     * @return Value of the option
+     */
+    public String get(String name, String defaultValue) {
+        String value = options.get(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * @param name         Name of the option
+     * @param defaultValue Value used when option is missing
+     * @return Value of the option as number
+     * @throws IllegalArgumentException When value is not a number
+     */
+    public long getLong(String name, long defaultValue) {
+        String value = get(name, null);
+        if (value == null) return defaultValue;
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " expects a number, got " + value);
+        }
+    }
+
+    /**
+     * @param name         Name of the option
+     * @param defaultValue Value used when option is missing
+     * @return Value of the option as number
+     * @throws IllegalArgumentException When value is not a number or does not fit into int
+     */
+    public int getInt(String name, int defaultValue) {
+        long value = getLong(name, defaultValue);
+        if (value != (int) value) {
+            throw new IllegalArgumentException("Option --" + name + " is out of range, got " + value);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * @return Parameters which are not options
+     */
+    public List<String> arguments() {
+        return arguments;
+    }
+}
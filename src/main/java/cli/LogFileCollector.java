@@ -0,0 +1,102 @@
+package cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class LogFileCollector {
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final SortedSet<Path> logFiles = new TreeSet<>();
+
+    /**
+     * Collector of log files for batch mode.
+     * Source is a directory (all regular files inside, recursively), a glob (`logs/*.log`, `logs/**.log`),
+     * a file list (`@list.txt` - one path per line, empty lines and lines starting with `#` are skipped)
+     * or a single file. Files are sorted by path, so batch results do not depend on file system order.
+     */
+    public LogFileCollector() {
+    }
+
+    /**
+     * @param source Directory, glob, file list or single file
+     * @throws IOException When directory or file list can not be read
+     */
+    public void add(String source) throws IOException {
+        if (source.startsWith("@")) {
+            addList(Paths.get(source.substring(1)));
+        } else if (isGlob(source)) {
+            addGlob(source);
+        } else {
+            Path path = Paths.get(source);
+            if (Files.isDirectory(path)) {
+                addDirectory(path, Integer.MAX_VALUE, null);
+            } else {
+                logFiles.add(path.normalize());
+            }
+        }
+    }
+
+    private void addList(Path listFile) throws IOException {
+        Path base = listFile.getParent();
+
+        for (String line : Files.readAllLines(listFile, StandardCharsets.UTF_8)) {
+            String entry = line.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) continue;
+
+            Path path = Paths.get(entry);
+            logFiles.add((path.isAbsolute() || base == null ? path : base.resolve(path)).normalize());
+        }
+    }
+
+    private void addGlob(String glob) throws IOException {
+        Path pattern = Paths.get(glob);
+        Path base = pattern.isAbsolute() ? pattern.getRoot() : Paths.get("");
+        int segment = 0;
+
+        for (; segment < pattern.getNameCount() - 1; segment++) {
+            String name = pattern.getName(segment).toString();
+            if (isGlob(name)) break;
+            base = base.resolve(name);
+        }
+
+        int depth = glob.contains("**") ? Integer.MAX_VALUE : pattern.getNameCount() - segment;
+        PathMatcher matcher = pattern.getFileSystem().getPathMatcher("glob:" + pattern.normalize());
+        if (Files.isDirectory(base.toString().isEmpty() ? Paths.get(".") : base)) {
+            addDirectory(base, depth, matcher);
+        }
+    }
+
+    /**
+     * @param directory Directory to walk, empty path means the working directory
+     * @param depth     Maximum depth of the walk
+     * @param matcher   Filter of found files, null accepts all files
+     */
+    private void addDirectory(Path directory, int depth, PathMatcher matcher) throws IOException {
+        boolean workingDirectory = directory.toString().isEmpty();
+
+        try (Stream<Path> paths = Files.walk(workingDirectory ? Paths.get(".") : directory, depth)) {
+            paths.filter(Files::isRegularFile)
+                    .map(path -> workingDirectory ? path.normalize() : path)
+                    .filter(path -> matcher == null || matcher.matches(path))
+                    .forEach(path -> logFiles.add(path.normalize()));
+        }
+    }
+
+    private static boolean isGlob(String source) {
+        for (int index = 0; index < source.length(); index++) {
+            if (GLOB_CHARACTERS.indexOf(source.charAt(index)) >= 0) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return Collected files sorted by path, without duplicates
+     */
+    public List<Path> logFiles() {
+        return new ArrayList<>(logFiles);
+    }
+}
@@ -1,10 +1,23 @@
 package interfaces;
 
+import parsers.FootprintAccumulator;
 import structures.Activity;
+import structures.ActivityDictionary;
+import structures.VariantTable;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 
 public interface ReadLogFile {
     List<List<Activity>> readProcessLog(Scanner scanner);
+
+    List<int[]> readEncodedLog(Scanner scanner, ActivityDictionary dictionary);
+
+    VariantTable readVariants(Scanner scanner, ActivityDictionary dictionary);
+
+    FootprintAccumulator readFootprint(Scanner scanner);
+
+    FootprintAccumulator readFootprint(Path logFile) throws IOException;
 }
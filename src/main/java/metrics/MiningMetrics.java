@@ -0,0 +1,236 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MiningMetrics implements MiningMetricsMXBean {
+    private static final MiningMetrics GLOBAL = new MiningMetrics();
+    private static final String OBJECT_NAME = "log-miner:type=MiningMetrics";
+
+    private final LongAdder casesCount = new LongAdder();
+    private final LongAdder variantsCount = new LongAdder();
+    private final LongAdder activitiesCount = new LongAdder();
+    private final LongAdder logsWithoutVariants = new LongAdder();
+    private final LongAdder candidatesGenerated = new LongAdder();
+    private final LongAdder duplicateCandidates = new LongAdder();
+    private final LongAdder relationValidations = new LongAdder();
+    private final LongAdder searchNodes = new LongAdder();
+    private final LongAdder maximalPairs = new LongAdder();
+    private final Map<String, LongAdder> phaseNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> phaseCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Counters and phase timings of mining.
+     * Hot loops count in local variables and add totals once, so counting does not slow down mining.
+     */
+    public MiningMetrics() {
+    }
+
+    /**
+     * @return Metrics shared by the whole process
+     */
+    public static MiningMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Register global metrics in the platform MBean server, second call does nothing
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(GLOBAL, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics can not be registered in JMX", e);
+        }
+    }
+
+    /**
+     * Start timing of the phase, use with try-with-resources.
+     * Each phase is also recorded as {@link PhaseEvent} when Flight Recorder is running.
+     *
+     * @param name Name of the phase
+     * @return Running phase
+     */
+    public Phase phase(String name) {
+        return new Phase(name);
+    }
+
+    /**
+     * Add size of the log which is mined, totals are summed over all mined logs (for example files of a batch).
+     * Growing log is recorded by its growth since the previous record.
+     *
+     * @param cases      Number of cases
+     * @param variants   Number of distinct cases, -1 when not tracked
+     * @param activities Number of unique activities
+     */
+    public void recordLog(long cases, long variants, long activities) {
+        casesCount.add(cases);
+        activitiesCount.add(activities);
+        if (variants < 0) {
+            logsWithoutVariants.increment();
+        } else {
+            variantsCount.add(variants);
+        }
+    }
+
+    public void addCandidates(long generated, long duplicates, long validations) {
+        candidatesGenerated.add(generated);
+        duplicateCandidates.add(duplicates);
+        relationValidations.add(validations);
+    }
+
+    public void addSearch(long nodes, long pairs) {
+        searchNodes.add(nodes);
+        maximalPairs.add(pairs);
+    }
+
+    @Override
+    public long getCasesCount() {
+        return casesCount.sum();
+    }
+
+    @Override
+    public long getVariantsCount() {
+        return logsWithoutVariants.sum() > 0 ? -1 : variantsCount.sum();
+    }
+
+    @Override
+    public long getActivitiesCount() {
+        return activitiesCount.sum();
+    }
+
+    @Override
+    public long getCandidatesGenerated() {
+        return candidatesGenerated.sum();
+    }
+
+    @Override
+    public long getDuplicateCandidates() {
+        return duplicateCandidates.sum();
+    }
+
+    @Override
+    public long getRelationValidations() {
+        return relationValidations.sum();
+    }
+
+    @Override
+    public long getSearchNodes() {
+        return searchNodes.sum();
+    }
+
+    @Override
+    public long getMaximalPairs() {
+        return maximalPairs.sum();
+    }
+
+    @Override
+    public Map<String, Long> getPhaseNanos() {
+        return snapshot(phaseNanos);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return snapshot(phaseCounts);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> values) {
+        Map<String, Long> sorted = new TreeMap<>();
+        values.forEach((name, value) -> sorted.put(name, value.sum()));
+
+        return sorted;
+    }
+
+    @Override
+    public void reset() {
+        casesCount.reset();
+        variantsCount.reset();
+        activitiesCount.reset();
+        logsWithoutVariants.reset();
+        candidatesGenerated.reset();
+        duplicateCandidates.reset();
+        relationValidations.reset();
+        searchNodes.reset();
+        maximalPairs.reset();
+        phaseNanos.clear();
+        phaseCounts.clear();
+    }
+
+    /**
+     * @return Counters and phase times (in milliseconds) as single JSON object, unknown number of variants is null
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"cases\":").append(getCasesCount());
+        long variants = getVariantsCount();
+        json.append(",\"variants\":").append(variants < 0 ? "null" : String.valueOf(variants));
+        json.append(",\"activities\":").append(getActivitiesCount());
+        json.append(",\"candidatesGenerated\":").append(getCandidatesGenerated());
+        json.append(",\"duplicateCandidates\":").append(getDuplicateCandidates());
+        json.append(",\"relationValidations\":").append(getRelationValidations());
+        json.append(",\"searchNodes\":").append(getSearchNodes());
+        json.append(",\"maximalPairs\":").append(getMaximalPairs());
+
+        json.append(",\"phases\":{");
+        Map<String, Long> counts = getPhaseCounts();
+        boolean first = true;
+        for (Map.Entry<String, Long> phase : getPhaseNanos().entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+
+            json.append('"').append(phase.getKey()).append("\":{\"millis\":")
+                    .append(String.format(Locale.ROOT, "%.3f", phase.getValue() / 1e6))
+                    .append(",\"runs\":").append(counts.getOrDefault(phase.getKey(), 0L)).append('}');
+        }
+
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Running phase, time is added to the metrics when phase is closed
+     */
+    public class Phase implements AutoCloseable {
+        private final String name;
+        private final PhaseEvent event = new PhaseEvent();
+        private final long start;
+        private long items = 0;
+
+        private Phase(String name) {
+            this.name = name;
+            this.event.begin();
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * @param items Number of items produced by the phase
+         */
+        public void setItems(long items) {
+            this.items = items;
+        }
+
+        @Override
+        public void close() {
+            long duration = System.nanoTime() - start;
+            phaseNanos.computeIfAbsent(name, key -> new LongAdder()).add(duration);
+            phaseCounts.computeIfAbsent(name, key -> new LongAdder()).increment();
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.items = items;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * Counters of the log miner exposed through JMX (`log-miner:type=MiningMetrics`)
+ */
+public interface MiningMetricsMXBean {
+    /**
+     * @return Number of cases summed over all mined logs
+     */
+    long getCasesCount();
+
+    /**
+     * @return Number of distinct cases summed over all mined logs, -1 when any of them did not track variants
+     */
+    long getVariantsCount();
+
+    /**
+     * @return Number of unique activities summed over all mined logs
+     */
+    long getActivitiesCount();
+
+    /**
+     * @return Candidate pairs of the joining search plus left and right candidates of searched seeds
+     */
+    long getCandidatesGenerated();
+
+    /**
+     * @return Candidates already known to the joining search plus candidates of seeds skipped as dominated
+     */
+    long getDuplicateCandidates();
+
+    /**
+     * @return Candidate pairs checked against the footprint plus relations checked while building local graphs
+     */
+    long getRelationValidations();
+
+    long getSearchNodes();
+
+    long getMaximalPairs();
+
+    /**
+     * @return Total time of each phase in nanoseconds
+     */
+    Map<String, Long> getPhaseNanos();
+
+    /**
+     * @return Number of runs of each phase
+     */
+    Map<String, Long> getPhaseCounts();
+
+    void reset();
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("logminer.Phase")
+@Label("Mining Phase")
+@Category("Log Miner")
+@Description("Duration of a single phase of mining the log file")
+public class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Items")
+    @Description("Number of items produced by the phase (cases, pairs, ...)")
+    long items;
+}
@@ -1,40 +1,37 @@
 package parsers;
 
+import metrics.MiningMetrics;
 import structures.Activity;
+import structures.ActivityDictionary;
 import structures.ActivityDirectSuccession;
 import structures.ActivityRelation;
 import structures.EntryPair;
+import structures.Footprint;
+import structures.SuccessionSet;
+import structures.VariantTable;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
-import static structures.ActivityRelation.RelationType.*;
+import java.util.*;
+import java.util.stream.Stream;
 
 public class ActivityRelationsBuilder {
     /**
      * Generate direct successions list based on the activities list
-     * No duplicates in the list (using Set to prevent duplications)
+     * No duplicates in the list (successions are stored as packed ids in SuccessionSet)
      *
      * @param cases Parsed log file as activities list
      * @return Non-duplicate list of direct successions between activities
      */
     public Set<ActivityDirectSuccession> generateDirectSuccessions(List<List<Activity>> cases) {
-        Set<ActivityDirectSuccession> successionsCollection = new HashSet<>();
+        ActivityDictionary dictionary = this.indexActivities(this.generateUniqueActivities(cases));
+        SuccessionSet successions = new SuccessionSet();
 
         for (List<Activity> caseRecord : cases) {
-            int caseSize = caseRecord.size();
-
-            for (int index = 1; index < caseSize; index++) {
-                Activity predecessor = caseRecord.get(index - 1);
-                Activity successor = caseRecord.get(index);
-
-                successionsCollection.add(new ActivityDirectSuccession(predecessor, successor));
+            for (int position = 1; position < caseRecord.size(); position++) {
+                successions.add(dictionary.idOf(caseRecord.get(position - 1)), dictionary.idOf(caseRecord.get(position)));
             }
         }
 
-        return successionsCollection;
+        return successions.asActivitySet(dictionary);
     }
 
     /**
@@ -53,6 +50,77 @@ public class ActivityRelationsBuilder {
         return uniqueActivities;
     }
 
+    /**
+     * Assign dense ids to activities, ids follow the order of the collection
+     *
+     * @param activities Unique activities
+     * @return Dictionary with ids of activities
+     */
+    private ActivityDictionary indexActivities(Collection<Activity> activities) {
+        ActivityDictionary dictionary = new ActivityDictionary();
+        for (Activity activity : activities) {
+            dictionary.intern(activity.activityName());
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Generate footprint matrix with direct successions and length-two loops between activities.
+     *
+     * @param cases      Parsed log file as activities list
+     * @param dictionary Ids of activities in the footprint
+     * @return Footprint matrix indexed by activity id
+     */
+    private Footprint generateFootprint(List<List<Activity>> cases, ActivityDictionary dictionary) {
+        Footprint footprint = Footprint.forAlphabet(dictionary.size());
+
+        for (List<Activity> caseRecord : cases) {
+            int caseSize = caseRecord.size();
+            int predecessor = caseSize > 0 ? dictionary.idOf(caseRecord.get(0)) : -1;
+            int secondPredecessor = -1;
+
+            for (int position = 1; position < caseSize; position++) {
+                int successor = dictionary.idOf(caseRecord.get(position));
+
+                footprint.addSuccession(predecessor, successor);
+                if (secondPredecessor == successor) footprint.addShortLoop(successor, predecessor);
+                secondPredecessor = predecessor;
+                predecessor = successor;
+            }
+        }
+
+        return footprint;
+    }
+
+    /**
+     * Generate footprint matrix based on distinct cases, each variant is processed once.
+     * Variants seen less than minimum count times are treated as noise and skipped.
+     *
+     * @param variants        Distinct cases with number of occurrences
+     * @param activitiesCount Number of activities in the dictionary used by variants
+     * @param minimumCount    Minimum number of occurrences of the variant
+     * @return Footprint matrix indexed by activity id
+     */
+    public Footprint generateFootprint(VariantTable variants, int activitiesCount, long minimumCount) {
+        Footprint footprint = Footprint.forAlphabet(activitiesCount);
+
+        for (int variant = 0; variant < variants.size(); variant++) {
+            if (variants.count(variant) < minimumCount) continue;
+
+            int length = variants.length(variant);
+            for (int position = 1; position < length; position++) {
+                int successor = variants.activity(variant, position);
+                footprint.addSuccession(variants.activity(variant, position - 1), successor);
+                if (position > 1 && variants.activity(variant, position - 2) == successor) {
+                    footprint.addShortLoop(successor, variants.activity(variant, position - 1));
+                }
+            }
+        }
+
+        return footprint;
+    }
+
     /**
      * Generate a list of relations between activities.
      * Each pair of activities has own relation stored in response
@@ -61,17 +129,14 @@ public class ActivityRelationsBuilder {
      * @return Relations between activities in log file (an activities list)
      */
     public List<ActivityRelation> generateRelationsBetweenActivities(List<List<Activity>> cases) {
-        Set<Activity> uniqueActivities = this.generateUniqueActivities(cases);
-        List<ActivityRelation> relations = new ArrayList<>();
-        Set<ActivityDirectSuccession> directSuccessions = this.generateDirectSuccessions(cases);
-
-        for (Activity A : uniqueActivities) {
-            for (Activity B : uniqueActivities) {
-                boolean AB = directSuccessions.contains(new ActivityDirectSuccession(A, B));
-                boolean BA = directSuccessions.contains(new ActivityDirectSuccession(B, A));
-                ActivityRelation.RelationType type = this.determineRelation(AB, BA);
-
-                relations.add(new ActivityRelation(A, B, type));
+        ActivityDictionary dictionary = this.indexActivities(this.generateUniqueActivities(cases));
+        Footprint footprint = this.generateFootprint(cases, dictionary);
+        int activitiesCount = dictionary.size();
+        List<ActivityRelation> relations = new ArrayList<>(activitiesCount * activitiesCount);
+
+        for (int A = 0; A < activitiesCount; A++) {
+            for (int B = 0; B < activitiesCount; B++) {
+                relations.add(new ActivityRelation(dictionary.activity(A), dictionary.activity(B), footprint.relation(A, B)));
             }
         }
 
@@ -79,26 +144,32 @@ public class ActivityRelationsBuilder {
     }
 
     /**
-     * Decide which relation assign to pair of activities.
-     * <b>Causality</b>: a > b and not b > a
-     * <b>Reversed Causality</b>: b > a and not a > b
-     * <b>Parallel</b>: a > b and b > a
-     * <b>Choice</b>: not a > b and not b > a
+     * Generate only relations different from `CHOICE(#)`, each pair of activities not listed is in choice.
+     * Relations are found by walking observed successions, so result grows with the log, not with alphabet squared.
      *
-     * @param AB Boolean value with check a > b
-     * @param BA Boolean value with check b > a
-     * @return Relation type
+     * @param log Footprint collected from the log file - source of truth
+     * @return Relations between activities which directly follow each other (in any direction)
      */
-    private ActivityRelation.RelationType determineRelation(boolean AB, boolean BA) {
-        if (AB && !BA) {
-            return CAUSALITY;
-        } else if (!AB && BA) {
-            return REVERSED_CAUSALITY;
-        } else if (AB && BA) {
-            return PARALLEL;
-        } else {
-            return CHOICE;
+    public List<ActivityRelation> generateObservedRelations(FootprintAccumulator log) {
+        Footprint footprint = log.getFootprint();
+        ActivityDictionary dictionary = log.getDictionary();
+        List<ActivityRelation> relations = new ArrayList<>();
+
+        for (int A = 0; A < footprint.size(); A++) {
+            int successor = footprint.nextSuccessor(A, 0);
+            int predecessor = footprint.nextPredecessor(A, 0);
+
+            // Merge both sorted neighbourhoods, so relations are ordered by the second activity
+            while (successor >= 0 || predecessor >= 0) {
+                int B = successor < 0 ? predecessor : predecessor < 0 ? successor : Math.min(successor, predecessor);
+                relations.add(new ActivityRelation(dictionary.activity(A), dictionary.activity(B), footprint.relation(A, B)));
+
+                if (B == successor) successor = footprint.nextSuccessor(A, B + 1);
+                if (B == predecessor) predecessor = footprint.nextPredecessor(A, B + 1);
+            }
         }
+
+        return relations;
     }
 
     /**
@@ -111,58 +182,234 @@ public class ActivityRelationsBuilder {
      * @return List of relations which we can find between activities
      */
     public List<EntryPair> findRelationsBasedOnLog(List<List<Activity>> cases) {
-        List<ActivityRelation> activityRelations = this.generateRelationsBetweenActivities(cases);
-        Set<Activity> uniqueActivities = this.generateUniqueActivities(cases);
+        ActivityDictionary dictionary = this.indexActivities(this.generateUniqueActivities(cases));
+        Footprint footprint = this.generateFootprint(cases, dictionary);
+        int activitiesCount = dictionary.size();
         List<EntryPair> choiceActivities = new ArrayList<>();
+        Set<EntryPair> knownCandidates = new HashSet<>();
+        long generated = 0;
+        long duplicates = 0;
+        long validations = 0;
+
+        try (MiningMetrics.Phase phase = MiningMetrics.global().phase("candidates")) {
+            // Step 1: Prepare basic relations with one element in left and right part, only successors can be in causality
+            for (int A = 0; A < activitiesCount; A++) {
+                for (int B = footprint.nextSuccessor(A, 0); B >= 0; B = footprint.nextSuccessor(A, B + 1)) {
+                    if (A == B) continue;
+
+                    EntryPair candidate = new EntryPair(dictionary, new int[]{A}, new int[]{B});
+                    generated++;
+                    validations++;
+
+                    if (isCorrectRelation(candidate, footprint)) {
+                        choiceActivities.add(candidate);
+                        knownCandidates.add(candidate);
+                    }
+                }
+            }
 
-        // Step 1: Prepare basic relations with one element in left and right part
-        for (Activity A : uniqueActivities) {
-            HashSet<Activity> setWithActivityA = new HashSet<>();
-            setWithActivityA.add(A);
-
-            for (Activity B : uniqueActivities) {
-                if (A.equals(B)) continue;
-
-                HashSet<Activity> setWithActivityB = new HashSet<>();
-                setWithActivityB.add(B);
-                EntryPair candidate = new EntryPair(setWithActivityA, setWithActivityB);
-
-                if (isCorrectRelation(candidate, activityRelations)) {
-                    choiceActivities.add(candidate);
+            // Step 2: Join parts into bigger group, as big as can do (respecting the rules)
+            boolean addedNewRelation = true;
+            int startIndex = 0;
+            while (addedNewRelation) {
+                int collectionSize = choiceActivities.size();
+                addedNewRelation = false;
+
+                for (int indexFirstGroup = startIndex; indexFirstGroup < collectionSize; indexFirstGroup++) {
+                    EntryPair firstGroup = choiceActivities.get(indexFirstGroup);
+
+                    for (int indexSecondGroup = indexFirstGroup + 1; indexSecondGroup < collectionSize; indexSecondGroup++) {
+                        EntryPair secondGroup = choiceActivities.get(indexSecondGroup);
+
+                        int[] left = union(firstGroup.getLeftIds(), secondGroup.getLeftIds());
+                        int[] right = union(firstGroup.getRightIds(), secondGroup.getRightIds());
+
+                        EntryPair candidate = new EntryPair(dictionary, left, right);
+                        generated++;
+                        if (!knownCandidates.add(candidate)) {
+                            duplicates++;
+                            continue;
+                        }
+
+                        validations++;
+                        if (isCorrectRelation(candidate, footprint)) {
+                            addedNewRelation = choiceActivities.add(candidate);
+                        }
+                    }
                 }
+
+                startIndex = collectionSize;
             }
+
+            phase.setItems(choiceActivities.size());
         }
+        MiningMetrics.global().addCandidates(generated, duplicates, validations);
+
+        return choiceActivities;
+    }
+
+    /**
+     * Generate list of maximal relations wrote as ({left set}, {right set}).
+     * Rules are the same as in findRelationsBasedOnLog, but pairs are enumerated directly on the footprint,
+     * so you will receive only maximum pairs without duplicates.
+     *
+     * @param cases All relations in the log file - source of truth
+     * @return List of maximum count relations which we can find between activities
+     */
+    public List<EntryPair> findMaximumRelationsBasedOnLog(List<List<Activity>> cases) {
+        ActivityDictionary dictionary = this.indexActivities(this.generateUniqueActivities(cases));
+        Footprint footprint = this.generateFootprint(cases, dictionary);
+
+        return this.enumerateMaximumPairs(footprint, dictionary);
+    }
+
+    /**
+     * Generate list of maximal relations wrote as ({left set}, {right set}) based on streamed footprint.
+     *
+     * @param log Footprint collected from the log file - source of truth
+     * @return List of maximum count relations which we can find between activities
+     */
+    public List<EntryPair> findMaximumRelationsBasedOnLog(FootprintAccumulator log) {
+        return this.findMaximumRelationsBasedOnLog(log, SuccessionThreshold.NONE);
+    }
 
-        // Step 2: Join parts into bigger group, as big as can do (respecting the rules)
-        boolean addedNewRelation = true;
-        int startIndex = 0;
-        while (addedNewRelation) {
-            int collectionSize = choiceActivities.size();
-            addedNewRelation = false;
+    /**
+     * Generate list of maximal relations based on streamed footprint without successions rarer than the threshold.
+     *
+     * @param log       Footprint with counts collected from the log file - source of truth
+     * @param threshold Noise filter of successions
+     * @return List of maximum count relations which we can find between activities
+     */
+    public List<EntryPair> findMaximumRelationsBasedOnLog(FootprintAccumulator log, SuccessionThreshold threshold) {
+        return this.enumerateMaximumPairs(threshold.apply(log), log.getDictionary());
+    }
 
-            for (int indexFirstGroup = startIndex; indexFirstGroup < collectionSize; indexFirstGroup++) {
-                EntryPair firstGroup = choiceActivities.get(indexFirstGroup);
+    /**
+     * Generate list of maximal relations wrote as ({left set}, {right set}) based on distinct cases.
+     *
+     * @param variants     Distinct cases with number of occurrences
+     * @param dictionary   Dictionary used to encode variants
+     * @param minimumCount Minimum number of occurrences of the variant, rarer variants are treated as noise
+     * @return List of maximum count relations which we can find between activities
+     */
+    public List<EntryPair> findMaximumRelationsBasedOnLog(VariantTable variants, ActivityDictionary dictionary, long minimumCount) {
+        Footprint footprint = this.generateFootprint(variants, dictionary.size(), minimumCount);
+
+        return this.enumerateMaximumPairs(footprint, dictionary);
+    }
+
+    /**
+     * Lazy sequence of maximal relations wrote as ({left set}, {right set}) based on streamed footprint.
+     * Each pair is emitted as soon as its seed is searched, so the first pairs are ready long before the last ones
+     * and `limit` stops the search. Search counters are recorded when the stream is closed.
+     *
+     * @param log Footprint collected from the log file - source of truth
+     * @return Ordered stream of maximal pairs, should be closed after use
+     */
+    public Stream<EntryPair> streamMaximumRelationsBasedOnLog(FootprintAccumulator log) {
+        return this.streamMaximumRelationsBasedOnLog(log, SuccessionThreshold.NONE);
+    }
 
-                for (int indexSecondGroup = indexFirstGroup + 1; indexSecondGroup < collectionSize; indexSecondGroup++) {
-                    EntryPair secondGroup = choiceActivities.get(indexSecondGroup);
+    /**
+     * @param log       Footprint with counts collected from the log file - source of truth
+     * @param threshold Noise filter of successions
+     * @return Ordered stream of maximal pairs, should be closed after use
+     */
+    public Stream<EntryPair> streamMaximumRelationsBasedOnLog(FootprintAccumulator log, SuccessionThreshold threshold) {
+        MaximalPairsEnumerator enumerator = new MaximalPairsEnumerator(threshold.apply(log), log.getDictionary());
+        long[] emitted = {0};
 
-                    HashSet<Activity> left = new HashSet<>(firstGroup.getLeft());
-                    left.addAll(secondGroup.getLeft());
+        return enumerator.stream()
+                .peek(pair -> emitted[0]++)
+                .onClose(() -> recordSearch(enumerator, emitted[0]));
+    }
 
-                    HashSet<Activity> right = new HashSet<>(firstGroup.getRight());
-                    right.addAll(secondGroup.getRight());
+    /**
+     * Find the biggest maximal relations (most activities in both parts), only the best pairs are kept in memory.
+     * Pairs of equal size are ordered as they were found.
+     *
+     * @param log   Footprint collected from the log file - source of truth
+     * @param count Maximum number of returned pairs
+     * @return Up to count biggest maximal pairs, the biggest first
+     */
+    public List<EntryPair> findLargestRelationsBasedOnLog(FootprintAccumulator log, int count) {
+        return this.findLargestRelationsBasedOnLog(log, SuccessionThreshold.NONE, count);
+    }
 
-                    EntryPair candidate = new EntryPair(left, right);
-                    if (isCorrectRelation(candidate, activityRelations)) {
-                        addedNewRelation = choiceActivities.add(candidate);
-                    }
-                }
-            }
+    /**
+     * @param log       Footprint with counts collected from the log file - source of truth
+     * @param threshold Noise filter of successions
+     * @param count     Maximum number of returned pairs
+     * @return Up to count biggest maximal pairs, the biggest first
+     */
+    public List<EntryPair> findLargestRelationsBasedOnLog(FootprintAccumulator log, SuccessionThreshold threshold, int count) {
+        if (count <= 0) return new ArrayList<>();
+        PriorityQueue<RankedPair> best = new PriorityQueue<>(RankedPair.WORST_FIRST);
+
+        try (Stream<EntryPair> pairs = this.streamMaximumRelationsBasedOnLog(log, threshold)) {
+            long[] order = {0};
+            pairs.forEach(pair -> {
+                best.add(new RankedPair(pair, order[0]++));
+                if (best.size() > count) best.poll();
+            });
+        }
 
-            startIndex = collectionSize;
+        List<EntryPair> largest = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            largest.add(best.poll().pair);
         }
+        Collections.reverse(largest);
 
-        return choiceActivities;
+        return largest;
+    }
+
+    /**
+     * Pair with its size and position in the search order
+     */
+    private static class RankedPair {
+        private static final Comparator<RankedPair> WORST_FIRST = Comparator.<RankedPair>comparingInt(ranked -> ranked.size)
+                .thenComparing(Comparator.<RankedPair>comparingLong(ranked -> ranked.order).reversed());
+
+        private final EntryPair pair;
+        private final int size;
+        private final long order;
+
+        private RankedPair(EntryPair pair, long order) {
+            this.pair = pair;
+            this.size = pair.getLeftIds().length + pair.getRightIds().length;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Generate list of maximal relations wrote as ({left set}, {right set}) based on footprint kept by the caller,
+     * for example footprint of the sliding window.
+     *
+     * @param footprint  Footprint indexed by activity id
+     * @param dictionary Dictionary which assigned the ids
+     * @return List of maximum count relations which we can find between activities
+     */
+    public List<EntryPair> findMaximumRelationsBasedOnFootprint(Footprint footprint, ActivityDictionary dictionary) {
+        return this.enumerateMaximumPairs(footprint, dictionary);
+    }
+
+    private List<EntryPair> enumerateMaximumPairs(Footprint footprint, ActivityDictionary dictionary) {
+        List<EntryPair> maximumElements = new ArrayList<>();
+        MaximalPairsEnumerator enumerator = new MaximalPairsEnumerator(footprint, dictionary);
+
+        try (MiningMetrics.Phase phase = MiningMetrics.global().phase("enumerate")) {
+            enumerator.enumerate(maximumElements::add);
+            phase.setItems(maximumElements.size());
+        }
+        recordSearch(enumerator, maximumElements.size());
+
+        return maximumElements;
+    }
+
+    private static void recordSearch(MaximalPairsEnumerator enumerator, long pairs) {
+        MiningMetrics metrics = MiningMetrics.global();
+        metrics.addCandidates(enumerator.getCandidates(), enumerator.getDominatedCandidates(), enumerator.getRelationChecks());
+        metrics.addSearch(enumerator.getSearchNodes(), pairs);
     }
 
     /**
@@ -170,56 +417,63 @@ public class ActivityRelationsBuilder {
      * All activities in left set should be with `CHOICE(#)` between each other. Also in right set.
      * Between left and right part (each elements) we expect to find `CAUSALITY(->)` relation.
      *
-     * @param pair      ({left set}, {right set}) as single element
-     * @param relations All relations in the log file - source of truth
+     * @param pair      ({left set}, {right set}) as single element with activity ids
+     * @param footprint Footprint of the log file - source of truth
      * @return True when relation is correct, false otherwise
      */
-    private boolean isCorrectRelation(EntryPair pair, List<ActivityRelation> relations) {
-        boolean correctRelation = true;
+    private boolean isCorrectRelation(EntryPair pair, Footprint footprint) {
+        int[] left = pair.getLeftIds();
+        int[] right = pair.getRightIds();
 
         // In left part all elements should be as CHOICE
-        for (Activity activity : pair.getLeft()) {
-            for (Activity refActivity : pair.getLeft()) {
-                if (!existRelationBetweenActivitiesWithRelationType(activity, refActivity, CHOICE, relations)) {
-                    correctRelation = false;
-                }
+        for (int activity : left) {
+            for (int refActivity : left) {
+                if (!footprint.isChoice(activity, refActivity)) return false;
             }
         }
 
         // In right part all elements should be as CHOICE
-        for (Activity activity : pair.getRight()) {
-            for (Activity refActivity : pair.getRight()) {
-                if (!existRelationBetweenActivitiesWithRelationType(activity, refActivity, CHOICE, relations)) {
-                    correctRelation = false;
-                }
+        for (int activity : right) {
+            for (int refActivity : right) {
+                if (!footprint.isChoice(activity, refActivity)) return false;
             }
         }
 
         // Each element of left should -> right element
-        for (Activity activity : pair.getLeft()) {
-            for (Activity refActivity : pair.getRight()) {
-                if (!existRelationBetweenActivitiesWithRelationType(activity, refActivity, CAUSALITY, relations)) {
-                    correctRelation = false;
-                }
+        for (int activity : left) {
+            for (int refActivity : right) {
+                if (!footprint.isCausality(activity, refActivity)) return false;
             }
         }
 
-        return correctRelation;
+        return true;
     }
 
     /**
-     * Check is exist relation between Predecessor and Successor with selected type
+     * Merge two sorted arrays of activity ids without duplicates
      *
-     * @param predecessor  Predecessor activity
-     * @param successor    Successor activity
-     * @param relationType Relation type which we want to find between Predecessor and Successor
-     * @param relations    All relations in the log file - source of truth
-     * @return True when relation exist, false otherwise
+     * @param first  Sorted activity ids
+     * @param second Sorted activity ids
+     * @return Sorted union of activity ids
      */
-    private boolean existRelationBetweenActivitiesWithRelationType(Activity predecessor, Activity successor, ActivityRelation.RelationType relationType, List<ActivityRelation> relations) {
-        return relations.stream().anyMatch(relation -> relation.getPredecessor().equals(predecessor) &&
-                relation.getSuccessor().equals(successor) &&
-                relation.getRelationType().equals(relationType));
+    private int[] union(int[] first, int[] second) {
+        int[] merged = new int[first.length + second.length];
+        int firstIndex = 0;
+        int secondIndex = 0;
+        int size = 0;
+
+        while (firstIndex < first.length || secondIndex < second.length) {
+            if (secondIndex == second.length || (firstIndex < first.length && first[firstIndex] < second[secondIndex])) {
+                merged[size++] = first[firstIndex++];
+            } else if (firstIndex == first.length || second[secondIndex] < first[firstIndex]) {
+                merged[size++] = second[secondIndex++];
+            } else {
+                merged[size++] = first[firstIndex++];
+                secondIndex++;
+            }
+        }
+
+        return Arrays.copyOf(merged, size);
     }
 
     /**
@@ -229,29 +483,11 @@ public class ActivityRelationsBuilder {
      * @return List of maximum count relations which we can find between activities
      */
     public List<EntryPair> selectOnlyMaximumElements(List<EntryPair> pairs) {
-        List<EntryPair> maximumElements = new ArrayList<>();
-        int totalElements = pairs.size();
+        try (MiningMetrics.Phase phase = MiningMetrics.global().phase("subsumption")) {
+            List<EntryPair> maximumElements = new SubsumptionIndex().selectOnlyMaximumElements(pairs);
+            phase.setItems(maximumElements.size());
 
-        for (int indexFirstElement = 0; indexFirstElement < totalElements; indexFirstElement++) {
-            EntryPair firstPair = pairs.get(indexFirstElement);
-            boolean isMaximum = true;
-
-            for (int indexSecondElement = 0; indexSecondElement < totalElements; indexSecondElement++) {
-                if (indexFirstElement == indexSecondElement) continue;
-
-                EntryPair secondPair = pairs.get(indexSecondElement);
-                // If second rule contain all elements (probably also some extra) - we are not maximum
-                if (secondPair.getLeft().containsAll(firstPair.getLeft()) && secondPair.getRight().containsAll(firstPair.getRight())) {
-                    isMaximum = false;
-                    break;
-                }
-            }
-
-            if (isMaximum) {
-                maximumElements.add(firstPair);
-            }
+            return maximumElements;
         }
-
-        return maximumElements;
     }
 }
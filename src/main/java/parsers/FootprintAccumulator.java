@@ -0,0 +1,299 @@
+package parsers;
+
+import structures.ActivityDictionary;
+import structures.Footprint;
+import structures.FootprintMatrix;
+import structures.SparseFootprint;
+import structures.SuccessionCounts;
+import structures.VariantTable;
+
+import java.util.Arrays;
+
+public class FootprintAccumulator {
+    private Footprint footprint = new FootprintMatrix(0);
+    private final ActivityDictionary dictionary = new ActivityDictionary();
+    private final SuccessionCounts successionCounts = new SuccessionCounts();
+    private final SuccessionCounts shortLoopCounts = new SuccessionCounts();
+    private final VariantTable variants;
+    private TraceSink traceSink;
+    private long casesCount = 0;
+    private long changesCount = 0;
+    private int predecessor = -1;
+    private int secondPredecessor = -1;
+    private int[] caseBuffer = new int[64];
+    private int caseLength = 0;
+
+    /**
+     * Collect unique activities and direct successions case by case.
+     * Only the footprint with number of occurrences of each succession is stored,
+     * so memory depends on number of unique activities, not on log size.
+     */
+    public FootprintAccumulator() {
+        this(false);
+    }
+
+    /**
+     * @param trackVariants When true, distinct traces are also counted in the variant table
+     */
+    public FootprintAccumulator(boolean trackVariants) {
+        this.variants = trackVariants ? new VariantTable() : null;
+    }
+
+    /**
+     * Parse single case record and store its activities and direct successions.
+     * Empty spaces are ignored, each other character is the name of the activity.
+     *
+     * @param caseRecord Single case from log file
+     */
+    public void acceptCase(CharSequence caseRecord) {
+        int length = caseRecord.length();
+
+        for (int position = 0; position < length; position++) {
+            acceptActivity(caseRecord.charAt(position));
+        }
+
+        endCase();
+    }
+
+    /**
+     * Parse single case record with names split by the tokenizer
+     *
+     * @param caseRecord Single case from log file
+     * @param tokens     Scanner created for the dictionary of this accumulator
+     */
+    public void acceptCase(CharSequence caseRecord, TokenScanner tokens) {
+        int length = caseRecord.length();
+
+        for (int position = 0; position < length; ) {
+            int codePoint = Character.codePointAt(caseRecord, position);
+            position += Character.charCount(codePoint);
+
+            int id = tokens.accept(codePoint);
+            if (id >= 0) acceptActivityId(id);
+        }
+
+        int id = tokens.endCase();
+        if (id >= 0) acceptActivityId(id);
+        endCase();
+    }
+
+    /**
+     * Store next activity of the current case, so readers can feed activities without building lines.
+     * Empty spaces are ignored.
+     *
+     * @param name Code point which is the name of the activity
+     */
+    public void acceptActivity(int name) {
+        if (name <= ' ') return;
+
+        acceptActivityId(dictionary.intern(name));
+    }
+
+    /**
+     * Store next activity of the current case, already interned in the dictionary of this accumulator
+     *
+     * @param successor Id of the activity
+     */
+    public void acceptActivityId(int successor) {
+        if (successor >= footprint.size()) {
+            registerActivities();
+        }
+        if (predecessor >= 0) {
+            addSuccession(predecessor, successor, 1);
+            if (secondPredecessor == successor) addShortLoop(successor, predecessor, 1);
+        }
+        secondPredecessor = predecessor;
+        predecessor = successor;
+
+        if (variants != null || traceSink != null) {
+            if (caseLength == caseBuffer.length) {
+                caseBuffer = Arrays.copyOf(caseBuffer, caseLength * 2);
+            }
+            caseBuffer[caseLength++] = successor;
+        }
+    }
+
+    /**
+     * Close the current case, next activity starts a new case
+     */
+    public void endCase() {
+        if (traceSink != null) {
+            traceSink.acceptTrace(dictionary, caseBuffer, caseLength);
+        }
+        if (variants != null) {
+            variants.add(caseBuffer, caseLength);
+        }
+        caseLength = 0;
+
+        predecessor = -1;
+        secondPredecessor = -1;
+        casesCount++;
+    }
+
+    /**
+     * Store trace already encoded with ids from this accumulator dictionary
+     *
+     * @param trace  Buffer with activity ids
+     * @param length Number of activities in the trace
+     * @param count  Number of cases with this trace
+     */
+    public void acceptEncodedCase(int[] trace, int length, long count) {
+        registerActivities();
+        for (int position = 1; position < length; position++) {
+            addSuccession(trace[position - 1], trace[position], count);
+            if (position > 1 && trace[position - 2] == trace[position]) addShortLoop(trace[position], trace[position - 1], count);
+        }
+
+        if (variants != null) {
+            variants.add(trace, length, count);
+        }
+        for (long occurrence = 0; traceSink != null && occurrence < count; occurrence++) {
+            traceSink.acceptTrace(dictionary, trace, length);
+        }
+        casesCount += count;
+    }
+
+    /**
+     * Grow the footprint after activities were interned directly in the dictionary.
+     * Dense footprint is replaced by sparse one when alphabet becomes big.
+     */
+    void registerActivities() {
+        int size = dictionary.size();
+        changesCount += size - footprint.size();
+
+        if (size > Footprint.SPARSE_THRESHOLD && footprint instanceof FootprintMatrix) {
+            footprint = SparseFootprint.copyOf(footprint);
+        }
+        footprint.ensureSize(size);
+    }
+
+    void addCases(long count) {
+        casesCount += count;
+    }
+
+    /**
+     * Footprint is updated only for the first occurrence, known successions just increase their count
+     */
+    void addSuccession(int predecessor, int successor, long count) {
+        if (successionCounts.add(predecessor, successor, count) == count && footprint.addSuccession(predecessor, successor)) {
+            changesCount++;
+        }
+    }
+
+    /**
+     * Loops are counted once for both orders, `a b a` and `b a b` increase the same counter
+     */
+    void addShortLoop(int first, int second, long count) {
+        if (first == second) return;
+
+        if (shortLoopCounts.add(Math.min(first, second), Math.max(first, second), count) == count && footprint.addShortLoop(first, second)) {
+            changesCount++;
+        }
+    }
+
+    /**
+     * Add activities and direct successions collected by other accumulator.
+     * Ids from other dictionary are translated by names, new activities receive next free ids,
+     * so merging partial results in log order gives the same ids as reading the log sequentially.
+     *
+     * @param other Accumulator with partial footprint
+     */
+    public void merge(FootprintAccumulator other) {
+        ActivityDictionary otherDictionary = other.getDictionary();
+        int[] ids = new int[otherDictionary.size()];
+        for (int otherId = 0; otherId < ids.length; otherId++) {
+            ids[otherId] = dictionary.intern(otherDictionary.name(otherId));
+        }
+        registerActivities();
+
+        other.getSuccessionCounts().forEach((predecessor, successor, count) -> addSuccession(ids[predecessor], ids[successor], count));
+        other.getShortLoopCounts().forEach((first, second, count) -> addShortLoop(ids[first], ids[second], count));
+
+        VariantTable otherVariants = other.getVariants();
+        if (variants != null && otherVariants != null) {
+            int[] trace = new int[16];
+            for (int variant = 0; variant < otherVariants.size(); variant++) {
+                int length = otherVariants.length(variant);
+                if (length > trace.length) trace = new int[Math.max(length, trace.length * 2)];
+
+                for (int position = 0; position < length; position++) {
+                    trace[position] = ids[otherVariants.activity(variant, position)];
+                }
+                variants.add(trace, length, otherVariants.count(variant));
+            }
+        }
+
+        casesCount += other.getCasesCount();
+    }
+
+    /**
+     * @param traceSink Receiver of each complete case, for example sliding window (null to disable)
+     */
+    public void setTraceSink(TraceSink traceSink) {
+        this.traceSink = traceSink;
+    }
+
+    public TraceSink getTraceSink() {
+        return traceSink;
+    }
+
+    public Footprint getFootprint() {
+        return footprint;
+    }
+
+    /**
+     * @return Number of occurrences `|a > b|` of each direct succession in the footprint
+     */
+    public SuccessionCounts getSuccessionCounts() {
+        return successionCounts;
+    }
+
+    /**
+     * @return Number of occurrences of each length-two loop, keyed by the lower id first
+     */
+    public SuccessionCounts getShortLoopCounts() {
+        return shortLoopCounts;
+    }
+
+    /**
+     * @return Dictionary with ids of activities used in the footprint
+     */
+    public ActivityDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return Distinct traces with number of occurrences, null when variants are not tracked
+     */
+    public VariantTable getVariants() {
+        return variants;
+    }
+
+    /**
+     * Return memory of the variant table to the budget, for example after partial footprint was merged
+     */
+    public void closeVariants() {
+        if (variants != null) variants.close();
+    }
+
+    /**
+     * @return Number of distinct traces, -1 when variants are not tracked
+     */
+    public long getVariantsCount() {
+        return variants == null ? -1 : variants.size();
+    }
+
+    public long getCasesCount() {
+        return casesCount;
+    }
+
+    /**
+     * Counter increased with each new activity and each new direct succession.
+     * When counter did not change, maximal pairs did not change either.
+     *
+     * @return Number of changes of the footprint
+     */
+    public long getChangesCount() {
+        return changesCount;
+    }
+}
@@ -0,0 +1,377 @@
+package parsers;
+
+import structures.ActivityDictionary;
+import structures.Footprint;
+import structures.SuccessionCounts;
+import structures.VariantTable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class FootprintSnapshot {
+    private static final int MAGIC = 0x4C4D4650;
+    private static final int VERSION = 5;
+    private static final int CHECKED_WINDOW = 64 * 1024;
+
+    private final FootprintAccumulator accumulator;
+    private final long offset;
+    private final long logChecksum;
+    private final Tokenizer tokenizer;
+
+    /**
+     * Binary snapshot of the footprint, so a restart does not need to parse the log again.
+     * <p>
+     * Format (big-endian): magic, version, tokenizer (UTF-8 canonical name), log offset, log checksum, cases count,
+     * activities (UTF-8 names), successions (for each activity number of successors and their ids with counts,
+     * then number of length-two loops with activities of higher ids and their ids with counts),
+     * variants (ids with counts, -1 when not tracked) and CRC32 of all previous bytes.
+     * Log checksum covers the first and the last 64 KiB before the offset, it detects rewritten logs.
+     *
+     * @param accumulator Footprint of the log file
+     * @param offset      Number of bytes of the log file included in the footprint
+     * @param logChecksum Checksum of the log file, see {@link #logChecksum(Path, long)}
+     * @param tokenizer   Rules which split case records into activity names while reading the log
+     */
+    public FootprintSnapshot(FootprintAccumulator accumulator, long offset, long logChecksum, Tokenizer tokenizer) {
+        this.accumulator = accumulator;
+        this.offset = offset;
+        this.logChecksum = logChecksum;
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Snapshot of the footprint read with single character activities
+     */
+    public FootprintSnapshot(FootprintAccumulator accumulator, long offset, long logChecksum) {
+        this(accumulator, offset, logChecksum, Tokenizer.singleCharacter());
+    }
+
+    /**
+     * Length of the longest log prefix which ends with a line separator.
+     * Snapshot never includes the last line without separator, the writer may still be appending to it.
+     * Separator `\r` at the very end of the file does not count, it may be the first half of `\r\n`.
+     *
+     * @param logFile Path to log file
+     * @return Number of bytes up to and including the last line separator, 0 when there is none
+     * @throws IOException When file can not be read
+     */
+    public static long completeLength(Path logFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(CHECKED_WINDOW);
+
+            for (long end = size, start; end > 0; end = start) {
+                start = Math.max(0, end - CHECKED_WINDOW);
+                buffer.clear().limit((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) return 0;
+                }
+
+                for (int index = (int) (end - start) - 1; index >= 0; index--) {
+                    byte value = buffer.get(index);
+                    if (value == '\n' || (value == '\r' && start + index < size - 1)) return start + index + 1;
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Checksum of the first and the last window of the log prefix
+     *
+     * @param logFile Path to log file
+     * @param length  Length of the prefix
+     * @return CRC32 value
+     * @throws IOException When file can not be read
+     */
+    public static long logChecksum(Path logFile, long length) throws IOException {
+        CRC32 checksum = new CRC32();
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            if (channel.size() < length) return -1;
+
+            updateChecksum(checksum, channel, 0, Math.min(length, CHECKED_WINDOW));
+            if (length > CHECKED_WINDOW) {
+                long start = Math.max(CHECKED_WINDOW, length - CHECKED_WINDOW);
+                updateChecksum(checksum, channel, start, length - start);
+            }
+        }
+
+        return checksum.getValue();
+    }
+
+    private static void updateChecksum(CRC32 checksum, FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) break;
+        }
+
+        buffer.flip();
+        checksum.update(buffer);
+    }
+
+    /**
+     * Check if the log file starts with the same bytes as when snapshot was written (unchanged or only appended)
+     *
+     * @param logFile Path to log file
+     * @return True when footprint can be continued from the offset
+     * @throws IOException When file can not be read
+     */
+    public boolean matches(Path logFile) throws IOException {
+        return logChecksum(logFile, offset) == logChecksum;
+    }
+
+    /**
+     * Check if the log file is unchanged or only appended and its cases are split by the same rules,
+     * footprint of other tokenizer has other activities and has to be built from the whole log
+     *
+     * @param logFile   Path to log file
+     * @param tokenizer Rules which split case records into activity names
+     * @return True when footprint can be continued from the offset
+     * @throws IOException When file can not be read
+     */
+    public boolean matches(Path logFile, Tokenizer tokenizer) throws IOException {
+        return this.tokenizer.toString().equals(tokenizer.toString()) && matches(logFile);
+    }
+
+    /**
+     * Write snapshot to temporary file and move it in place, so readers never see a partial snapshot
+     *
+     * @param snapshotFile Path to snapshot file
+     * @throws IOException When file can not be written
+     */
+    public void write(Path snapshotFile) throws IOException {
+        Path directory = snapshotFile.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+
+        try {
+            CRC32 checksum = new CRC32();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Files.newOutputStream(temporaryFile), checksum)))) {
+                writeContent(output);
+                output.flush();
+                output.writeLong(checksum.getValue());
+            }
+
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private void writeContent(DataOutputStream output) throws IOException {
+        ActivityDictionary dictionary = accumulator.getDictionary();
+        Footprint footprint = accumulator.getFootprint();
+        SuccessionCounts successionCounts = accumulator.getSuccessionCounts();
+        SuccessionCounts shortLoopCounts = accumulator.getShortLoopCounts();
+        VariantTable variants = accumulator.getVariants();
+        int activitiesCount = dictionary.size();
+        int[] row = new int[16];
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        byte[] tokenizerName = tokenizer.toString().getBytes(StandardCharsets.UTF_8);
+        output.writeInt(tokenizerName.length);
+        output.write(tokenizerName);
+        output.writeLong(offset);
+        output.writeLong(logChecksum);
+        output.writeLong(accumulator.getCasesCount());
+
+        output.writeInt(activitiesCount);
+        for (int id = 0; id < activitiesCount; id++) {
+            byte[] name = dictionary.name(id).getBytes(StandardCharsets.UTF_8);
+            output.writeInt(name.length);
+            output.write(name);
+        }
+
+        for (int predecessor = 0; predecessor < activitiesCount; predecessor++) {
+            int successorsCount = 0;
+            for (int successor = footprint.nextSuccessor(predecessor, 0); successor >= 0;
+                 successor = footprint.nextSuccessor(predecessor, successor + 1)) {
+                if (successorsCount == row.length) row = Arrays.copyOf(row, row.length * 2);
+                row[successorsCount++] = successor;
+            }
+
+            output.writeInt(successorsCount);
+            for (int index = 0; index < successorsCount; index++) {
+                output.writeInt(row[index]);
+                output.writeLong(successionCounts.count(predecessor, row[index]));
+            }
+
+            int loopsCount = 0;
+            for (int other = footprint.nextShortLoop(predecessor, predecessor + 1); other >= 0;
+                 other = footprint.nextShortLoop(predecessor, other + 1)) {
+                if (loopsCount == row.length) row = Arrays.copyOf(row, row.length * 2);
+                row[loopsCount++] = other;
+            }
+
+            output.writeInt(loopsCount);
+            for (int index = 0; index < loopsCount; index++) {
+                output.writeInt(row[index]);
+                output.writeLong(shortLoopCounts.count(predecessor, row[index]));
+            }
+        }
+
+        output.writeInt(variants == null ? -1 : variants.size());
+        for (int variant = 0; variants != null && variant < variants.size(); variant++) {
+            output.writeLong(variants.count(variant));
+            output.writeInt(variants.length(variant));
+            for (int position = 0; position < variants.length(variant); position++) {
+                output.writeInt(variants.activity(variant, position));
+            }
+        }
+    }
+
+    /**
+     * Load snapshot through memory mapping
+     *
+     * @param snapshotFile Path to snapshot file
+     * @return Loaded snapshot
+     * @throws IOException When file can not be read, has other version or checksum does not match
+     */
+    public static FootprintSnapshot read(Path snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            if (channel.size() < Integer.BYTES * 2 + Long.BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + snapshotFile + " has invalid size");
+            }
+
+            MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int contentSize = content.limit() - Long.BYTES;
+
+            CRC32 checksum = new CRC32();
+            checksum.update(content.duplicate().limit(contentSize));
+            if (checksum.getValue() != content.getLong(contentSize)) {
+                throw new IOException("Snapshot " + snapshotFile + " is corrupted");
+            }
+            if (content.getInt() != MAGIC || content.getInt() != VERSION) {
+                throw new IOException("Snapshot " + snapshotFile + " has unsupported format");
+            }
+
+            try {
+                return readContent(content.limit(contentSize));
+            } catch (RuntimeException e) {
+                throw new IOException("Snapshot " + snapshotFile + " is corrupted", e);
+            }
+        }
+    }
+
+    private static FootprintSnapshot readContent(ByteBuffer content) {
+        byte[] tokenizerName = new byte[content.getInt()];
+        content.get(tokenizerName);
+        Tokenizer tokenizer = Tokenizer.parse(new String(tokenizerName, StandardCharsets.UTF_8));
+        long offset = content.getLong();
+        long logChecksum = content.getLong();
+        long casesCount = content.getLong();
+
+        int activitiesCount = content.getInt();
+        String[] names = new String[activitiesCount];
+        for (int id = 0; id < activitiesCount; id++) {
+            byte[] name = new byte[content.getInt()];
+            content.get(name);
+            names[id] = new String(name, StandardCharsets.UTF_8);
+        }
+
+        ByteBuffer successions = content.slice();
+        for (int predecessor = 0; predecessor < activitiesCount; predecessor++) {
+            int successorsCount = content.getInt();
+            content.position(content.position() + successorsCount * (Integer.BYTES + Long.BYTES));
+            int loopsCount = content.getInt();
+            content.position(content.position() + loopsCount * (Integer.BYTES + Long.BYTES));
+        }
+
+        int variantsCount = content.getInt();
+        FootprintAccumulator accumulator = new FootprintAccumulator(variantsCount >= 0);
+        for (String name : names) {
+            accumulator.getDictionary().intern(name);
+        }
+        accumulator.registerActivities();
+
+        for (int predecessor = 0; predecessor < activitiesCount; predecessor++) {
+            int successorsCount = successions.getInt();
+            for (int index = 0; index < successorsCount; index++) {
+                accumulator.addSuccession(predecessor, successions.getInt(), successions.getLong());
+            }
+            int loopsCount = successions.getInt();
+            for (int index = 0; index < loopsCount; index++) {
+                accumulator.addShortLoop(predecessor, successions.getInt(), successions.getLong());
+            }
+        }
+
+        int[] trace = new int[16];
+        for (int variant = 0; variant < variantsCount; variant++) {
+            long count = content.getLong();
+            int length = content.getInt();
+            if (length > trace.length) trace = new int[Math.max(length, trace.length * 2)];
+
+            for (int position = 0; position < length; position++) {
+                trace[position] = content.getInt();
+            }
+            accumulator.getVariants().add(trace, length, count);
+        }
+        accumulator.addCases(casesCount);
+
+        return new FootprintSnapshot(accumulator, offset, logChecksum, tokenizer);
+    }
+
+    /**
+     * Combine partial footprints of log slices, for example written by separate processes on separate hosts.
+     * Dictionaries are reconciled by names, so merging partials in log order gives the same ids and the same
+     * pairs as reading the concatenated log. Merge is associative - merged partials can be merged again.
+     * Variants are not merged, the result holds the footprint and the number of cases.
+     *
+     * @param partialFiles Snapshots of consecutive log slices in log order
+     * @return Snapshot with merged footprint, offset is the sum of offsets and log checksum is 0
+     * @throws IOException When any partial can not be read or partials were read with different tokenizers
+     */
+    public static FootprintSnapshot merge(List<Path> partialFiles) throws IOException {
+        FootprintAccumulator merged = new FootprintAccumulator();
+        Tokenizer tokenizer = null;
+        long offset = 0;
+
+        for (Path partialFile : partialFiles) {
+            FootprintSnapshot partial = read(partialFile);
+            if (tokenizer == null) {
+                tokenizer = partial.getTokenizer();
+            } else if (!tokenizer.toString().equals(partial.getTokenizer().toString())) {
+                throw new IOException("Partial " + partialFile + " was read with tokenizer " + partial.getTokenizer()
+                        + ", other partials with " + tokenizer);
+            }
+
+            merged.merge(partial.getAccumulator());
+            partial.getAccumulator().closeVariants();
+            offset += partial.getOffset();
+        }
+
+        return new FootprintSnapshot(merged, offset, 0, tokenizer == null ? Tokenizer.singleCharacter() : tokenizer);
+    }
+
+    public FootprintAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * @return Rules which split case records into activity names when the footprint was read
+     */
+    public Tokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * @return Number of bytes of the log file included in the footprint
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,406 @@
+package parsers;
+
+import structures.ActivityDictionary;
+import structures.EntryPair;
+import structures.Footprint;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class MaximalPairsEnumerator {
+    private final Footprint footprint;
+    private final ActivityDictionary dictionary;
+    private long searchNodes = 0;
+    private long candidates = 0;
+    private long dominatedCandidates = 0;
+    private long relationChecks = 0;
+
+    /**
+     * Enumerate maximal pairs ({left set}, {right set}) directly on the footprint.
+     * Pair is a clique in a graph where each activity appears twice (as left and right vertex):
+     * left vertices are connected when `CHOICE(#)`, right vertices also, left with right when `CAUSALITY(->)`.
+     * Maximal pairs are maximal cliques with both parts non-empty, found by Bron-Kerbosch search with pivoting.
+     *
+     * @param footprint  Footprint of the log file - source of truth
+     * @param dictionary Dictionary with ids of activities used in the footprint
+     */
+    public MaximalPairsEnumerator(Footprint footprint, ActivityDictionary dictionary) {
+        this.footprint = footprint;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Emit each maximal pair exactly once.
+     * Search is split by seed - activity with the lowest id in left part of the pair.
+     * Each seed builds a small local graph with only activities which can be joined with the seed.
+     * Candidates are found by walking successors of the seed and predecessors of its successors,
+     * so cost grows with number of observed successions, not with alphabet squared.
+     *
+     * @param sink Receiver of maximal pairs
+     */
+    public void enumerate(Consumer<EntryPair> sink) {
+        enumerateWhile(pair -> {
+            sink.accept(pair);
+            return true;
+        });
+    }
+
+    /**
+     * Emit maximal pairs until the sink refuses more, the search stops right after the refused pair
+     *
+     * @param sink Receiver of maximal pairs, returns false when no more pairs are needed
+     */
+    public void enumerateWhile(Predicate<EntryPair> sink) {
+        Seeds seeds = new Seeds();
+        boolean[] wanted = {true};
+
+        while (wanted[0] && seeds.hasNext()) {
+            seeds.searchNext(pair -> {
+                wanted[0] = sink.test(pair);
+                return wanted[0];
+            });
+        }
+    }
+
+    /**
+     * Lazy sequence of maximal pairs, seeds are searched only when the previous pairs were consumed.
+     * The first pair is available after the first seed with pairs, short-circuiting operations like
+     * `limit` or `findFirst` stop the search.
+     *
+     * @return Ordered stream of maximal pairs, the same order as {@link #enumerate(Consumer)}
+     */
+    public Stream<EntryPair> stream() {
+        Seeds seeds = new Seeds();
+        Deque<EntryPair> ready = new ArrayDeque<>();
+
+        Spliterator<EntryPair> pairs = new Spliterators.AbstractSpliterator<EntryPair>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super EntryPair> action) {
+                while (ready.isEmpty() && seeds.hasNext()) {
+                    seeds.searchNext(ready::add);
+                }
+                if (ready.isEmpty()) return false;
+
+                action.accept(ready.removeFirst());
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(pairs, false);
+    }
+
+    /**
+     * Seeds searched one after another, scratch arrays are shared by all seeds
+     */
+    private class Seeds {
+        private final int activitiesCount = footprint.size();
+        private final int[] leftCandidates = new int[activitiesCount];
+        private final int[] rightCandidates = new int[activitiesCount];
+        private final int[] visitedBySeed = new int[activitiesCount];
+        private int nextSeed = 0;
+
+        Seeds() {
+            Arrays.fill(visitedBySeed, -1);
+        }
+
+        boolean hasNext() {
+            return nextSeed < activitiesCount;
+        }
+
+        /**
+         * Emit maximal pairs with the next seed as the lowest left activity
+         *
+         * @param sink Receiver of maximal pairs, returns false when no more pairs are needed
+         */
+        void searchNext(Predicate<EntryPair> sink) {
+            int seed = nextSeed++;
+            if (footprint.follows(seed, seed)) return;
+
+            int rightSize = 0;
+            for (int activity = footprint.nextSuccessor(seed, 0); activity >= 0; activity = footprint.nextSuccessor(seed, activity + 1)) {
+                if (footprint.isCausality(seed, activity) && !footprint.follows(activity, activity)) {
+                    rightCandidates[rightSize++] = activity;
+                }
+            }
+            if (rightSize == 0) return;
+
+            // Left candidates have to precede at least one right candidate
+            int leftSize = 0;
+            visitedBySeed[seed] = seed;
+            for (int index = 0; index < rightSize; index++) {
+                int right = rightCandidates[index];
+
+                for (int activity = footprint.nextPredecessor(right, 0); activity >= 0; activity = footprint.nextPredecessor(right, activity + 1)) {
+                    if (visitedBySeed[activity] == seed || !footprint.isCausality(activity, right)) continue;
+                    visitedBySeed[activity] = seed;
+
+                    if (!footprint.follows(activity, activity) && footprint.isChoice(seed, activity)) {
+                        leftCandidates[leftSize++] = activity;
+                    }
+                }
+            }
+            Arrays.sort(leftCandidates, 0, leftSize);
+            candidates += leftSize + rightSize;
+            if (isDominated(seed, leftCandidates, leftSize, rightCandidates, rightSize)) {
+                dominatedCandidates += leftSize + rightSize;
+                return;
+            }
+
+            new LocalSearch(seed, leftCandidates, leftSize, rightCandidates, rightSize, sink).run();
+        }
+    }
+
+    /**
+     * Left candidate with lower id joined with all other candidates extends every pair of this seed,
+     * so all maximal pairs of this seed were already reported by lower seed and local graph is not built.
+     */
+    private boolean isDominated(int seed, int[] leftCandidates, int leftSize, int[] rightCandidates, int rightSize) {
+        for (int index = 0; index < leftSize && leftCandidates[index] < seed; index++) {
+            int candidate = leftCandidates[index];
+            boolean joined = true;
+
+            for (int other = 0; other < leftSize && joined; other++) {
+                joined = other == index || footprint.isChoice(candidate, leftCandidates[other]);
+            }
+            for (int other = 0; other < rightSize && joined; other++) {
+                joined = footprint.isCausality(candidate, rightCandidates[other]);
+            }
+
+            if (joined) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Bron-Kerbosch search inside the neighbourhood of single seed.
+     * Local vertices [0, leftSize) are left candidates, [leftSize, leftSize + rightSize) are right candidates.
+     */
+    private class LocalSearch {
+        private final int seed;
+        private final int[] vertices;
+        private final int leftSize;
+        private final int words;
+        private final long[][] neighbours;
+        private final long[] rightMask;
+        private final int[] clique;
+        private final Predicate<EntryPair> sink;
+        private int cliqueSize = 0;
+        private boolean stopped = false;
+
+        LocalSearch(int seed, int[] leftCandidates, int leftSize, int[] rightCandidates, int rightSize, Predicate<EntryPair> sink) {
+            int size = leftSize + rightSize;
+            this.seed = seed;
+            this.leftSize = leftSize;
+            this.sink = sink;
+            this.words = Math.max(1, (size + 63) >>> 6);
+            this.vertices = new int[size];
+            this.neighbours = new long[size][words];
+            this.rightMask = new long[words];
+            this.clique = new int[size];
+            relationChecks += (long) size * (size - 1) / 2;
+
+            System.arraycopy(leftCandidates, 0, vertices, 0, leftSize);
+            System.arraycopy(rightCandidates, 0, vertices, leftSize, rightSize);
+
+            for (int first = 0; first < size; first++) {
+                if (first >= leftSize) set(rightMask, first);
+
+                for (int second = first + 1; second < size; second++) {
+                    if (isConnected(first, second)) {
+                        set(neighbours[first], second);
+                        set(neighbours[second], first);
+                    }
+                }
+            }
+        }
+
+        private boolean isConnected(int first, int second) {
+            boolean firstLeft = first < leftSize;
+            boolean secondLeft = second < leftSize;
+
+            if (firstLeft == secondLeft) {
+                return footprint.isChoice(vertices[first], vertices[second]);
+            } else if (firstLeft) {
+                return footprint.isCausality(vertices[first], vertices[second]);
+            } else {
+                return footprint.isCausality(vertices[second], vertices[first]);
+            }
+        }
+
+        void run() {
+            long[] candidates = new long[words];
+            long[] excluded = new long[words];
+
+            // Left candidates with lower id were seeds before - all pairs with them are already reported
+            for (int vertex = 0; vertex < vertices.length; vertex++) {
+                if (vertex < leftSize && vertices[vertex] < seed) {
+                    set(excluded, vertex);
+                } else {
+                    set(candidates, vertex);
+                }
+            }
+
+            expand(candidates, excluded, false);
+        }
+
+        private void expand(long[] candidates, long[] excluded, boolean hasRight) {
+            searchNodes++;
+            if (isEmpty(candidates)) {
+                if (hasRight && isEmpty(excluded)) report();
+                return;
+            }
+            // Without any right vertex reachable no valid pair can be built in this branch
+            if (!hasRight && !intersects(candidates, rightMask)) return;
+
+            long[] pivotNeighbours = neighbours[choosePivot(candidates, excluded)];
+            for (int word = 0; word < words; word++) {
+                long branches = candidates[word] & ~pivotNeighbours[word];
+
+                while (branches != 0) {
+                    int vertex = (word << 6) + Long.numberOfTrailingZeros(branches);
+                    branches &= branches - 1;
+
+                    clique[cliqueSize++] = vertex;
+                    expand(and(candidates, neighbours[vertex]), and(excluded, neighbours[vertex]), hasRight || vertex >= leftSize);
+                    cliqueSize--;
+                    if (stopped) return;
+
+                    clear(candidates, vertex);
+                    set(excluded, vertex);
+                }
+            }
+        }
+
+        /**
+         * Pick vertex from candidates or excluded with the most neighbours in candidates
+         */
+        private int choosePivot(long[] candidates, long[] excluded) {
+            int pivot = -1;
+            int bestScore = -1;
+            int candidatesCount = 0;
+            for (long word : candidates) {
+                candidatesCount += Long.bitCount(word);
+            }
+
+            for (int word = 0; word < words; word++) {
+                long bits = candidates[word] | excluded[word];
+
+                while (bits != 0) {
+                    int vertex = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    int score = 0;
+                    long[] row = neighbours[vertex];
+                    for (int index = 0; index < words; index++) {
+                        score += Long.bitCount(candidates[index] & row[index]);
+                    }
+
+                    if (score > bestScore) {
+                        bestScore = score;
+                        pivot = vertex;
+                    }
+                    // Vertex connected with all other candidates is the best possible pivot
+                    if (bestScore >= candidatesCount - 1) return pivot;
+                }
+            }
+
+            return pivot;
+        }
+
+        private void report() {
+            int leftCount = 1;
+            for (int index = 0; index < cliqueSize; index++) {
+                if (clique[index] < leftSize) leftCount++;
+            }
+
+            int[] left = new int[leftCount];
+            int[] right = new int[cliqueSize + 1 - leftCount];
+            int leftPosition = 0;
+            int rightPosition = 0;
+            left[leftPosition++] = seed;
+
+            for (int index = 0; index < cliqueSize; index++) {
+                int vertex = clique[index];
+                if (vertex < leftSize) {
+                    left[leftPosition++] = vertices[vertex];
+                } else {
+                    right[rightPosition++] = vertices[vertex];
+                }
+            }
+
+            Arrays.sort(left);
+            Arrays.sort(right);
+            stopped = !sink.test(new EntryPair(dictionary, left, right));
+        }
+    }
+
+    /**
+     * @return Number of visited nodes of the search tree, grows quickly for pathological footprints
+     */
+    public long getSearchNodes() {
+        return searchNodes;
+    }
+
+    /**
+     * @return Number of left and right candidates collected for all searched seeds
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return Number of candidates of seeds skipped as dominated, their pairs were reported by lower seed
+     */
+    public long getDominatedCandidates() {
+        return dominatedCandidates;
+    }
+
+    /**
+     * @return Number of footprint relations checked while building local graphs
+     */
+    public long getRelationChecks() {
+        return relationChecks;
+    }
+
+    private static void set(long[] mask, int bit) {
+        mask[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clear(long[] mask, int bit) {
+        mask[bit >>> 6] &= ~(1L << bit);
+    }
+
+    private static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0) return false;
+        }
+
+        return true;
+    }
+
+    private static boolean intersects(long[] first, long[] second) {
+        for (int word = 0; word < first.length; word++) {
+            if ((first[word] & second[word]) != 0) return true;
+        }
+
+        return false;
+    }
+
+    private static long[] and(long[] first, long[] second) {
+        long[] result = new long[first.length];
+        for (int word = 0; word < first.length; word++) {
+            result[word] = first[word] & second[word];
+        }
+
+        return result;
+    }
+}
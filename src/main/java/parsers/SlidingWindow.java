@@ -0,0 +1,195 @@
+package parsers;
+
+import structures.ActivityDictionary;
+import structures.EntryPair;
+import structures.Footprint;
+import structures.FootprintMatrix;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+public class SlidingWindow implements TraceSink {
+    private final int maxCases;
+    private final long maxAgeMillis;
+    private final Deque<WindowCase> cases = new ArrayDeque<>();
+    private ActivityDictionary dictionary;
+    private Footprint footprint = new FootprintMatrix(0);
+    private int[][] counts = new int[0][];
+    private int[][] loopCounts = new int[0][];
+    private long changesCount = 0;
+    private long enumeratedChanges = -1;
+    private List<EntryPair> pairs;
+
+    /**
+     * Footprint of the most recent cases only.
+     * Each direct succession and length-two loop has a counter of its occurrences inside the window: cases entering the window
+     * increment counters, cases leaving the window decrement them. The footprint changes only when a counter
+     * crosses zero, so maximal pairs are enumerated again only then.
+     * Cases older than the window are dropped, the window keeps only its own traces.
+     *
+     * @param maxCases     Maximum number of cases in the window, 0 for no limit
+     * @param maxAgeMillis Maximum time since the case arrived, 0 for no limit
+     */
+    public SlidingWindow(int maxCases, long maxAgeMillis) {
+        this.maxCases = maxCases;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Add case arriving now, the oldest case leaves when the window is full.
+     * Empty cases are ignored.
+     */
+    @Override
+    public void acceptTrace(ActivityDictionary dictionary, int[] trace, int length) {
+        accept(dictionary, trace, length, System.currentTimeMillis());
+    }
+
+    /**
+     * @param dictionary Dictionary used to encode the trace, another dictionary starts the window from scratch
+     * @param trace      Buffer with activity ids
+     * @param length     Number of activities in the trace
+     * @param timestamp  Arrival time of the case in milliseconds
+     */
+    public void accept(ActivityDictionary dictionary, int[] trace, int length, long timestamp) {
+        if (dictionary != this.dictionary) {
+            clear(dictionary);
+        }
+        if (length == 0) return;
+
+        ensureSize(dictionary.size());
+        for (int position = 1; position < length; position++) {
+            increment(trace[position - 1], trace[position]);
+            if (position > 1 && trace[position - 2] == trace[position]) incrementLoop(trace[position], trace[position - 1]);
+        }
+        cases.addLast(new WindowCase(Arrays.copyOf(trace, length), timestamp));
+
+        if (maxCases > 0 && cases.size() > maxCases) {
+            evict();
+        }
+        expire(timestamp);
+    }
+
+    /**
+     * Drop cases older than the window
+     *
+     * @param now Current time in milliseconds
+     */
+    public void expire(long now) {
+        if (maxAgeMillis <= 0) return;
+
+        while (!cases.isEmpty() && cases.peekFirst().timestamp <= now - maxAgeMillis) {
+            evict();
+        }
+    }
+
+    private void clear(ActivityDictionary dictionary) {
+        if (!cases.isEmpty()) {
+            changesCount++;
+        }
+        this.dictionary = dictionary;
+        this.footprint = new FootprintMatrix(0);
+        this.counts = new int[0][];
+        this.loopCounts = new int[0][];
+        this.cases.clear();
+    }
+
+    private void ensureSize(int size) {
+        footprint.ensureSize(size);
+        if (size <= counts.length) return;
+
+        int capacity = Math.max(size, counts.length * 2);
+        counts = grow(counts, capacity);
+        loopCounts = grow(loopCounts, capacity);
+    }
+
+    private static int[][] grow(int[][] matrix, int capacity) {
+        int[][] grown = Arrays.copyOf(matrix, capacity);
+        for (int row = 0; row < capacity; row++) {
+            grown[row] = grown[row] == null ? new int[capacity] : Arrays.copyOf(grown[row], capacity);
+        }
+
+        return grown;
+    }
+
+    private void increment(int predecessor, int successor) {
+        if (counts[predecessor][successor]++ == 0) {
+            footprint.addSuccession(predecessor, successor);
+            changesCount++;
+        }
+    }
+
+    /**
+     * Loops are symmetric, so both orders share the counter in the upper triangle of the matrix
+     */
+    private void incrementLoop(int first, int second) {
+        if (first != second && loopCounts[Math.min(first, second)][Math.max(first, second)]++ == 0) {
+            footprint.addShortLoop(first, second);
+            changesCount++;
+        }
+    }
+
+    private void evict() {
+        int[] trace = cases.removeFirst().trace;
+
+        for (int position = 1; position < trace.length; position++) {
+            if (--counts[trace[position - 1]][trace[position]] == 0) {
+                footprint.removeSuccession(trace[position - 1], trace[position]);
+                changesCount++;
+            }
+
+            int first = trace[position];
+            int second = trace[position - 1];
+            if (position > 1 && trace[position - 2] == first && first != second
+                    && --loopCounts[Math.min(first, second)][Math.max(first, second)] == 0) {
+                footprint.removeShortLoop(first, second);
+                changesCount++;
+            }
+        }
+    }
+
+    /**
+     * Maximal pairs of the cases inside the window.
+     * Pairs are enumerated again only when a direct succession appeared or disappeared since the last call.
+     *
+     * @return List of maximal pairs
+     */
+    public List<EntryPair> maximalPairs() {
+        if (pairs == null || enumeratedChanges != changesCount) {
+            ActivityDictionary activities = dictionary == null ? new ActivityDictionary() : dictionary;
+            pairs = new ActivityRelationsBuilder().findMaximumRelationsBasedOnFootprint(footprint, activities);
+            enumeratedChanges = changesCount;
+        }
+
+        return pairs;
+    }
+
+    /**
+     * @return Number of cases inside the window
+     */
+    public int size() {
+        return cases.size();
+    }
+
+    /**
+     * @return Number of direct successions which appeared in or disappeared from the window so far
+     */
+    public long getChangesCount() {
+        return changesCount;
+    }
+
+    public Footprint getFootprint() {
+        return footprint;
+    }
+
+    private static class WindowCase {
+        private final int[] trace;
+        private final long timestamp;
+
+        private WindowCase(int[] trace, long timestamp) {
+            this.trace = trace;
+            this.timestamp = timestamp;
+        }
+    }
+}
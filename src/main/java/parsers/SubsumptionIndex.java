@@ -0,0 +1,161 @@
+package parsers;
+
+import structures.Activity;
+import structures.EntryPair;
+
+import java.util.*;
+
+public class SubsumptionIndex {
+    private final Map<Activity, Integer> leftIds = new HashMap<>();
+    private final Map<Activity, Integer> rightIds = new HashMap<>();
+    private final List<long[]> maximumLeft = new ArrayList<>();
+    private final List<long[]> maximumRight = new ArrayList<>();
+    private final List<List<Integer>> leftPostings = new ArrayList<>();
+    private final List<List<Integer>> rightPostings = new ArrayList<>();
+
+    /**
+     * Select pairs which are not contained in any other pair.
+     * Pairs are visited from the biggest one, so each pair is compared only with already accepted maximum pairs.
+     * Accepted pairs are indexed by activity - candidate is compared only with pairs from the shortest posting list
+     * of its activities, and containment is checked on bitmasks.
+     * From equal pairs only the first one is kept.
+     *
+     * @param pairs List of relations which we can find between activities
+     * @return List of maximum count relations in the same order as in input
+     */
+    public List<EntryPair> selectOnlyMaximumElements(List<EntryPair> pairs) {
+        this.clear();
+        int totalElements = pairs.size();
+        Integer[] order = new Integer[totalElements];
+        for (int index = 0; index < totalElements; index++) {
+            order[index] = index;
+        }
+        Arrays.sort(order, Comparator.comparingInt(index -> -cardinality(pairs.get(index))));
+
+        long[][] left = new long[totalElements][];
+        long[][] right = new long[totalElements][];
+        for (int index = 0; index < totalElements; index++) {
+            left[index] = encode(pairs.get(index).getLeft(), leftIds);
+            right[index] = encode(pairs.get(index).getRight(), rightIds);
+        }
+
+        boolean[] isMaximum = new boolean[totalElements];
+        for (int index : order) {
+            if (!isSubsumed(left[index], right[index])) {
+                isMaximum[index] = true;
+                accept(left[index], right[index]);
+            }
+        }
+
+        List<EntryPair> maximumElements = new ArrayList<>();
+        for (int index = 0; index < totalElements; index++) {
+            if (isMaximum[index]) {
+                maximumElements.add(pairs.get(index));
+            }
+        }
+
+        return maximumElements;
+    }
+
+    private void clear() {
+        leftIds.clear();
+        rightIds.clear();
+        maximumLeft.clear();
+        maximumRight.clear();
+        leftPostings.clear();
+        rightPostings.clear();
+    }
+
+    private static int cardinality(EntryPair pair) {
+        return pair.getLeft().size() + pair.getRight().size();
+    }
+
+    private static long[] encode(Set<Activity> activities, Map<Activity, Integer> ids) {
+        for (Activity activity : activities) {
+            ids.putIfAbsent(activity, ids.size());
+        }
+
+        long[] mask = new long[0];
+        for (Activity activity : activities) {
+            int id = ids.get(activity);
+            if ((id >>> 6) >= mask.length) {
+                mask = Arrays.copyOf(mask, (id >>> 6) + 1);
+            }
+            mask[id >>> 6] |= 1L << id;
+        }
+
+        return mask;
+    }
+
+    /**
+     * Check if any accepted pair contains all activities of the candidate
+     */
+    private boolean isSubsumed(long[] left, long[] right) {
+        List<Integer> shortestPostings = shortestPostings(left, leftPostings, null);
+        shortestPostings = shortestPostings(right, rightPostings, shortestPostings);
+
+        if (shortestPostings == null) {
+            return !maximumLeft.isEmpty();
+        }
+
+        for (int accepted : shortestPostings) {
+            if (isSubset(left, maximumLeft.get(accepted)) && isSubset(right, maximumRight.get(accepted))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<Integer> shortestPostings(long[] mask, List<List<Integer>> postings, List<Integer> shortest) {
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                List<Integer> candidatePostings = id < postings.size() ? postings.get(id) : Collections.emptyList();
+                if (shortest == null || candidatePostings.size() < shortest.size()) {
+                    shortest = candidatePostings;
+                }
+            }
+        }
+
+        return shortest;
+    }
+
+    private void accept(long[] left, long[] right) {
+        int accepted = maximumLeft.size();
+        maximumLeft.add(left);
+        maximumRight.add(right);
+
+        addPostings(left, leftPostings, accepted);
+        addPostings(right, rightPostings, accepted);
+    }
+
+    private static void addPostings(long[] mask, List<List<Integer>> postings, int accepted) {
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                while (postings.size() <= id) {
+                    postings.add(new ArrayList<>());
+                }
+                postings.get(id).add(accepted);
+            }
+        }
+    }
+
+    private static boolean isSubset(long[] subset, long[] superset) {
+        for (int word = 0; word < subset.length; word++) {
+            long superWord = word < superset.length ? superset[word] : 0L;
+            if ((subset[word] & ~superWord) != 0) return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package parsers;
+
+import structures.Footprint;
+import structures.SuccessionCounts;
+
+public class SuccessionThreshold {
+    /**
+     * Threshold which keeps every observed succession
+     */
+    public static final SuccessionThreshold NONE = new SuccessionThreshold(Mode.ABSOLUTE, 0);
+
+    public enum Mode {
+        /**
+         * Succession a > b is kept when it occurred at least threshold times
+         */
+        ABSOLUTE,
+        /**
+         * Succession a > b is kept when it occurred at least threshold times as often as the most frequent successor of a
+         */
+        RELATIVE,
+        /**
+         * One-way succession a > b is kept when dependency a => b reaches threshold (rule of the heuristic miner).
+         * Of two-way successions only the reversal of a strong dependency is dropped,
+         * balanced ones are kept, so parallel activities stay parallel.
+         * Length-two loop which passes the threshold keeps both its successions.
+         */
+        DEPENDENCY
+    }
+
+    private final Mode mode;
+    private final double threshold;
+
+    /**
+     * Noise filter of the footprint driven by number of occurrences of successions.
+     * With boolean footprint a single noisy case turns causality into parallel, here rare successions are dropped.
+     * Filter works on counts collected by the accumulator, so different thresholds are tried without reading the log.
+     * <p>
+     * Dependency measure is the one of the heuristic miner:
+     * `a => b = (|a > b| - |b > a|) / (|a > b| + |b > a| + 1)`, for length-one loop `|a > a| / (|a > a| + 1)`
+     * and for length-two loop `(|a > b > a| + |b > a > b|) / (|a > b > a| + |b > a > b| + 1)`.
+     *
+     * @param mode      How counts are compared with the threshold
+     * @param threshold Minimum count for absolute mode, fraction between 0 and 1 for other modes (above 0 for dependency)
+     */
+    public SuccessionThreshold(Mode mode, double threshold) {
+        if (!(threshold >= 0) || Double.isInfinite(threshold) || (mode != Mode.ABSOLUTE && threshold > 1)
+                || (mode == Mode.DEPENDENCY && threshold == 0)) {
+            throw new IllegalArgumentException("Threshold " + threshold + " is out of range for " + mode.name().toLowerCase() + " mode");
+        }
+
+        this.mode = mode;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Create threshold from command line specification
+     *
+     * @param specification `absolute:N`, `relative:F` or `dependency:F`
+     * @return Threshold
+     */
+    public static SuccessionThreshold parse(String specification) {
+        int separator = specification.indexOf(':');
+        if (separator > 0) {
+            for (Mode mode : Mode.values()) {
+                if (!mode.name().equalsIgnoreCase(specification.substring(0, separator))) continue;
+
+                try {
+                    return new SuccessionThreshold(mode, Double.parseDouble(specification.substring(separator + 1)));
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown threshold " + specification + ", use absolute:N, relative:F or dependency:F");
+    }
+
+    /**
+     * @param count    Number of occurrences of a > b
+     * @param reversed Number of occurrences of b > a
+     * @return Dependency a => b between -1 and 1
+     */
+    public static double dependency(long count, long reversed) {
+        return (count - reversed) / (count + reversed + 1.0);
+    }
+
+    /**
+     * @param count Number of occurrences of the loop
+     * @return Dependency of length-one or length-two loop between 0 and 1
+     */
+    public static double loopDependency(long count) {
+        return count / (count + 1.0);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Build footprint with successions and length-two loops which pass the threshold.
+     * Footprint of the log is returned as it is when the threshold keeps everything.
+     *
+     * @param log Footprint with counts collected from the log file
+     * @return Filtered footprint indexed by the same activity ids
+     */
+    public Footprint apply(FootprintAccumulator log) {
+        Footprint observed = log.getFootprint();
+        if (mode == Mode.ABSOLUTE && threshold <= 1) return observed;
+
+        SuccessionCounts counts = log.getSuccessionCounts();
+        SuccessionCounts loopCounts = log.getShortLoopCounts();
+        Footprint filtered = Footprint.forAlphabet(observed.size());
+
+        for (int predecessor = 0; predecessor < observed.size(); predecessor++) {
+            long strongest = 0;
+            for (int successor = observed.nextSuccessor(predecessor, 0); mode == Mode.RELATIVE && successor >= 0;
+                 successor = observed.nextSuccessor(predecessor, successor + 1)) {
+                strongest = Math.max(strongest, counts.count(predecessor, successor));
+            }
+
+            for (int successor = observed.nextSuccessor(predecessor, 0); successor >= 0;
+                 successor = observed.nextSuccessor(predecessor, successor + 1)) {
+                if (keepsSuccession(predecessor, successor, counts, strongest)) {
+                    filtered.addSuccession(predecessor, successor);
+                }
+            }
+        }
+
+        for (int first = 0; first < observed.size(); first++) {
+            for (int second = observed.nextShortLoop(first, first + 1); second >= 0; second = observed.nextShortLoop(first, second + 1)) {
+                boolean keptBothWays = filtered.follows(first, second) && filtered.follows(second, first);
+                if ((keptBothWays || mode == Mode.DEPENDENCY)
+                        && keepsShortLoop(loopCounts.count(first, second), counts.count(first, second), counts.count(second, first))) {
+                    // Loop measure decides for both successions of the loop, as in the heuristic miner
+                    filtered.addSuccession(first, second);
+                    filtered.addSuccession(second, first);
+                    filtered.addShortLoop(first, second);
+                }
+            }
+        }
+
+        return filtered;
+    }
+
+    private boolean keepsSuccession(int predecessor, int successor, SuccessionCounts counts, long strongest) {
+        long count = counts.count(predecessor, successor);
+
+        switch (mode) {
+            case ABSOLUTE:
+                return count >= threshold;
+            case RELATIVE:
+                return count >= threshold * strongest;
+            default:
+                if (predecessor == successor) return loopDependency(count) >= threshold;
+
+                long reversed = counts.count(successor, predecessor);
+                if (reversed == 0) return dependency(count, 0) >= threshold;
+                return dependency(reversed, count) < threshold;
+        }
+    }
+
+    private boolean keepsShortLoop(long count, long forward, long backward) {
+        switch (mode) {
+            case ABSOLUTE:
+                return count >= threshold;
+            case RELATIVE:
+                return count >= threshold * Math.max(forward, backward);
+            default:
+                return loopDependency(count) >= threshold;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return mode.name().toLowerCase() + ":" + threshold;
+    }
+}
@@ -0,0 +1,88 @@
+package parsers;
+
+import structures.ActivityDictionary;
+
+import java.util.Arrays;
+
+public class TokenScanner {
+    private final Tokenizer tokenizer;
+    private final ActivityDictionary dictionary;
+    private byte[] token = new byte[64];
+    private int length = 0;
+    private int trimmedLength = 0;
+
+    /**
+     * Scanner which receives characters of case records one by one and returns ids of finished activities.
+     * Current name is collected as UTF-8 bytes in a reused buffer and interned from there,
+     * so no String is created for names already known to the dictionary.
+     * Scanner keeps state between calls, so it is not shared between threads.
+     *
+     * @param tokenizer  Rules which split case records into activity names
+     * @param dictionary Dictionary which interns activity names
+     */
+    public TokenScanner(Tokenizer tokenizer, ActivityDictionary dictionary) {
+        this.tokenizer = tokenizer;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Accept next character of the case record
+     *
+     * @param codePoint Character of the case record (without line separators)
+     * @return Id of the activity finished by this character or -1
+     */
+    public int accept(int codePoint) {
+        if (tokenizer.isSingleCharacter()) {
+            return codePoint > ' ' ? dictionary.intern(codePoint) : -1;
+        }
+        if (tokenizer.isSeparator(codePoint)) {
+            return flush();
+        }
+        if (codePoint <= ' ' && length == 0) {
+            return -1;
+        }
+
+        append(codePoint);
+        if (codePoint > ' ') trimmedLength = length;
+        return -1;
+    }
+
+    /**
+     * Finish the case record
+     *
+     * @return Id of the last activity of the case record or -1 when no name is pending
+     */
+    public int endCase() {
+        return flush();
+    }
+
+    private int flush() {
+        int id = trimmedLength > 0 ? dictionary.intern(token, 0, trimmedLength) : -1;
+        length = 0;
+        trimmedLength = 0;
+
+        return id;
+    }
+
+    private void append(int codePoint) {
+        if (length + 4 > token.length) {
+            token = Arrays.copyOf(token, token.length * 2);
+        }
+
+        if (codePoint < 0x80) {
+            token[length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            token[length++] = (byte) (0xC0 | (codePoint >>> 6));
+            token[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            token[length++] = (byte) (0xE0 | (codePoint >>> 12));
+            token[length++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+            token[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            token[length++] = (byte) (0xF0 | (codePoint >>> 18));
+            token[length++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+            token[length++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+            token[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package parsers;
+
+import structures.ActivityDictionary;
+
+public class Tokenizer {
+    private static final int SINGLE_CHARACTER = 0;
+    private static final int WHITESPACE = 1;
+    private static final int DELIMITED = 2;
+
+    private static final Tokenizer SINGLE_CHARACTER_TOKENIZER = new Tokenizer(SINGLE_CHARACTER, 0);
+    private static final Tokenizer WHITESPACE_TOKENIZER = new Tokenizer(WHITESPACE, 0);
+
+    private final int mode;
+    private final int delimiter;
+
+    private Tokenizer(int mode, int delimiter) {
+        this.mode = mode;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Each character is the name of the activity, empty spaces are ignored (original log format)
+     */
+    public static Tokenizer singleCharacter() {
+        return SINGLE_CHARACTER_TOKENIZER;
+    }
+
+    /**
+     * Activity names are separated by empty spaces
+     */
+    public static Tokenizer whitespace() {
+        return WHITESPACE_TOKENIZER;
+    }
+
+    /**
+     * Activity names are separated by the delimiter, empty spaces around names are removed
+     *
+     * @param delimiter Code point which separates names
+     */
+    public static Tokenizer delimited(int delimiter) {
+        if (delimiter <= ' ') return WHITESPACE_TOKENIZER;
+
+        return new Tokenizer(DELIMITED, delimiter);
+    }
+
+    /**
+     * Parse tokenizer from command line: `char`, `whitespace` or `delimited:X` (`delimited` alone uses comma)
+     *
+     * @param specification Name of the tokenizer
+     * @return Tokenizer
+     */
+    public static Tokenizer parse(String specification) {
+        if (specification.equals("char")) return singleCharacter();
+        if (specification.equals("whitespace")) return whitespace();
+        if (specification.equals("delimited")) return delimited(',');
+        if (specification.startsWith("delimited:")
+                && specification.codePointCount("delimited:".length(), specification.length()) == 1) {
+            return delimited(specification.codePointAt("delimited:".length()));
+        }
+
+        throw new IllegalArgumentException("Unknown tokenizer " + specification + ", use char, whitespace or delimited:X");
+    }
+
+    public boolean isSingleCharacter() {
+        return mode == SINGLE_CHARACTER;
+    }
+
+    /**
+     * @param codePoint Character of the case record
+     * @return True when character ends the current activity name
+     */
+    boolean isSeparator(int codePoint) {
+        return mode == DELIMITED ? codePoint == delimiter : codePoint <= ' ';
+    }
+
+    /**
+     * @param dictionary Dictionary which interns activity names
+     * @return New scanner which splits case records and interns names in the dictionary
+     */
+    public TokenScanner newScanner(ActivityDictionary dictionary) {
+        return new TokenScanner(this, dictionary);
+    }
+
+    /**
+     * @return Canonical specification accepted by {@link #parse(String)}, equal for equivalent tokenizers
+     */
+    @Override
+    public String toString() {
+        if (mode == SINGLE_CHARACTER) return "char";
+        if (mode == WHITESPACE) return "whitespace";
+
+        return "delimited:" + new String(Character.toChars(delimiter));
+    }
+}
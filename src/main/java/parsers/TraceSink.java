@@ -0,0 +1,15 @@
+package parsers;
+
+import structures.ActivityDictionary;
+
+/**
+ * Receiver of complete cases encoded as activity ids
+ */
+public interface TraceSink {
+    /**
+     * @param dictionary Dictionary used to encode the trace
+     * @param trace      Buffer with activity ids, reused after the call
+     * @param length     Number of activities in the trace
+     */
+    void acceptTrace(ActivityDictionary dictionary, int[] trace, int length);
+}
@@ -0,0 +1,272 @@
+package reader;
+
+import parsers.FootprintAccumulator;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+public class GzipLogReader extends ProcessLogReader {
+    private static final int GZIP_MAGIC = 0x8B1F;
+    private static final int END_OF_CASE = -1;
+    private static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    private static final int DEFAULT_RING_SIZE = 8;
+
+    private final int blockSize;
+    private final int ringSize;
+
+    /**
+     * Reader of gzip-compressed log files which runs three stages at once:
+     * inflating bytes, splitting lines into activity ids and adding ids to the footprint.
+     * Stages are connected by bounded ring buffers of reused batches, so memory does not depend on log size
+     * and reading takes about as long as the slowest stage.
+     */
+    public GzipLogReader() {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * @param blockSize Number of bytes (and activity ids) in a single batch
+     * @param ringSize  Number of batches between two stages
+     */
+    public GzipLogReader(int blockSize, int ringSize) {
+        this.blockSize = Math.max(16, blockSize);
+        this.ringSize = Math.max(2, ringSize);
+    }
+
+    /**
+     * @param logFile Path to log file
+     * @return True when file starts with gzip header
+     * @throws IOException When file can not be read
+     */
+    public static boolean isGzip(Path logFile) throws IOException {
+        try (InputStream input = Files.newInputStream(logFile)) {
+            int first = input.read();
+            int second = input.read();
+            return second >= 0 && (first | second << 8) == GZIP_MAGIC;
+        }
+    }
+
+    /**
+     * Read compressed process event log, concatenated gzip members are read one after another
+     *
+     * @param logFile Path to log file
+     * @return Footprint with unique activities and direct successions
+     * @throws IOException When file can not be read or is not valid gzip
+     */
+    @Override
+    public FootprintAccumulator readFootprint(Path logFile) throws IOException {
+        try (InputStream input = Files.newInputStream(logFile)) {
+            return readFootprint(input);
+        }
+    }
+
+    /**
+     * @param compressed Gzip stream, not closed by the reader
+     * @return Footprint with unique activities and direct successions
+     * @throws IOException When stream can not be read or is not valid gzip
+     */
+    public FootprintAccumulator readFootprint(InputStream compressed) throws IOException {
+        FootprintAccumulator accumulator = newAccumulator();
+        Ring<Block> blocks = new Ring<>(ringSize, () -> new Block(new byte[blockSize], null));
+        Ring<Block> ids = new Ring<>(ringSize, () -> new Block(null, new int[blockSize]));
+        ExecutorService stages = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> inflating = stages.submit(() -> inflate(compressed, blocks));
+            Future<?> splitting = stages.submit(() -> split(accumulator, blocks, ids));
+
+            accumulate(accumulator, ids);
+            inflating.get();
+            splitting.get();
+
+            return accumulator;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Reading log file was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("Reading log file failed", e.getCause());
+        } finally {
+            stages.shutdownNow();
+        }
+    }
+
+    /**
+     * First stage - inflate compressed stream into blocks of bytes
+     */
+    private Void inflate(InputStream compressed, Ring<Block> blocks) throws IOException, InterruptedException {
+        try (GZIPInputStream input = new GZIPInputStream(new NonClosingInputStream(compressed), blockSize)) {
+            while (true) {
+                Block block = blocks.free.take();
+                int length = 0;
+                int read = 0;
+
+                while (length < block.bytes.length && (read = input.read(block.bytes, length, block.bytes.length - length)) >= 0) {
+                    length += read;
+                }
+
+                block.length = length;
+                if (length > 0) blocks.filled.put(block);
+                if (read < 0) return null;
+            }
+        } finally {
+            blocks.close();
+        }
+    }
+
+    /**
+     * Second stage - decode UTF-8, split lines and names, intern names and pass activity ids in batches.
+     * The end of each case is marked by -1.
+     */
+    private Void split(FootprintAccumulator accumulator, Ring<Block> blocks, Ring<Block> ids) throws InterruptedException {
+        IdBatcher batcher = new IdBatcher(ids);
+
+        try {
+            MappedLogReader.Utf8Scanner scanner = new MappedLogReader.Utf8Scanner(accumulator.getDictionary(), getTokenizer(), batcher);
+            for (Block block = blocks.filled.take(); block != blocks.end; block = blocks.filled.take()) {
+                for (int position = 0; position < block.length; position++) {
+                    scanner.accept(block.bytes[position]);
+                }
+                blocks.free.put(block);
+            }
+
+            scanner.finish();
+            batcher.flush();
+        } finally {
+            ids.close();
+        }
+
+        return null;
+    }
+
+    /**
+     * Last stage - add activity ids to the footprint, runs on the calling thread.
+     * Only the dictionary size is read here, names are interned by the previous stage,
+     * ids in a batch are always interned before the batch is passed.
+     */
+    private static void accumulate(FootprintAccumulator accumulator, Ring<Block> ids) throws InterruptedException {
+        for (Block block = ids.filled.take(); block != ids.end; block = ids.filled.take()) {
+            for (int position = 0; position < block.length; position++) {
+                if (block.ids[position] == END_OF_CASE) {
+                    accumulator.endCase();
+                } else {
+                    accumulator.acceptActivityId(block.ids[position]);
+                }
+            }
+            ids.free.put(block);
+        }
+    }
+
+    /**
+     * Collector of activity ids from the scanner into reused batches
+     */
+    private static class IdBatcher implements MappedLogReader.ActivitySink {
+        private final Ring<Block> ids;
+        private Block block;
+
+        private IdBatcher(Ring<Block> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public void acceptActivityId(int id) {
+            if (block == null) {
+                block = await(ids.free);
+                block.length = 0;
+            }
+
+            block.ids[block.length++] = id;
+            if (block.length == block.ids.length) flush();
+        }
+
+        @Override
+        public void endCase() {
+            acceptActivityId(END_OF_CASE);
+        }
+
+        private void flush() {
+            if (block == null) return;
+
+            try {
+                ids.filled.put(block);
+                block = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Reading log file was interrupted");
+            }
+        }
+
+        private static Block await(BlockingQueue<Block> queue) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Reading log file was interrupted");
+            }
+        }
+    }
+
+    /**
+     * Bounded ring between two stages: filled batches go forward, used batches come back to be filled again
+     */
+    private static class Ring<T> {
+        private final BlockingQueue<T> free;
+        private final BlockingQueue<T> filled;
+        private final T end;
+
+        private Ring(int size, Supplier<T> batches) {
+            this.free = new ArrayBlockingQueue<>(size);
+            this.filled = new ArrayBlockingQueue<>(size + 1);
+            this.end = batches.get();
+            for (int batch = 0; batch < size; batch++) {
+                free.add(batches.get());
+            }
+        }
+
+        /**
+         * Tell the next stage that no more batches come, there is always room for this marker
+         */
+        private void close() {
+            filled.offer(end);
+        }
+    }
+
+    /**
+     * Reused batch of bytes or activity ids
+     */
+    private static class Block {
+        private final byte[] bytes;
+        private final int[] ids;
+        private int length;
+
+        private Block(byte[] bytes, int[] ids) {
+            this.bytes = bytes;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * Caller closes the compressed stream, the inflater only releases its own resources
+     */
+    private static class NonClosingInputStream extends FilterInputStream {
+        private NonClosingInputStream(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
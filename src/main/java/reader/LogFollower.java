@@ -0,0 +1,188 @@
+package reader;
+
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
+import parsers.TraceSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class LogFollower {
+    private final Path logFile;
+    private final long pollIntervalMillis;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+    private Tokenizer tokenizer = Tokenizer.singleCharacter();
+    private FootprintAccumulator accumulator;
+    private MappedLogReader.Utf8Scanner scanner;
+    private long offset;
+
+    /**
+     * Follower of the growing log file (like `tail -f`).
+     * Only bytes appended since the last read are parsed and added to the footprint.
+     * When the file becomes shorter (truncated or rotated) the footprint is built again from the beginning.
+     *
+     * @param logFile            Path to log file
+     * @param pollIntervalMillis Maximum time between checks of the file size
+     */
+    public LogFollower(Path logFile, long pollIntervalMillis) {
+        this(logFile, pollIntervalMillis, new FootprintAccumulator(), 0);
+    }
+
+    /**
+     * Follower which continues already collected footprint, for example loaded from a snapshot.
+     * Bytes after the offset always start a new case.
+     *
+     * @param logFile            Path to log file
+     * @param pollIntervalMillis Maximum time between checks of the file size
+     * @param accumulator        Footprint of the log file up to the offset
+     * @param offset             Number of bytes already included in the footprint
+     */
+    public LogFollower(Path logFile, long pollIntervalMillis, FootprintAccumulator accumulator, long offset) {
+        this.logFile = logFile;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.accumulator = accumulator;
+        this.scanner = new MappedLogReader.Utf8Scanner(accumulator, tokenizer);
+        this.offset = offset;
+    }
+
+    /**
+     * Change tokenizer before the first read
+     *
+     * @param tokenizer Rules which split case records into activity names (default: single character names)
+     */
+    public void setTokenizer(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+        this.scanner = new MappedLogReader.Utf8Scanner(accumulator, tokenizer);
+    }
+
+    private void reset() {
+        TraceSink traceSink = accumulator.getTraceSink();
+        accumulator = new FootprintAccumulator(accumulator.getVariants() != null);
+        accumulator.setTraceSink(traceSink);
+        scanner = new MappedLogReader.Utf8Scanner(accumulator, tokenizer);
+        offset = 0;
+    }
+
+    /**
+     * Read bytes appended since the last call.
+     * Last line may be incomplete - its activities are added now and the line is continued with the next call.
+     *
+     * @return True when footprint changed (new activity or new direct succession)
+     * @throws IOException When file can not be read
+     */
+    public boolean readAppended() throws IOException {
+        return readAppended(Long.MAX_VALUE);
+    }
+
+    /**
+     * Read bytes appended since the last call, but not beyond the limit
+     *
+     * @param limit Position in the file where reading stops
+     * @return True when footprint changed (new activity or new direct succession)
+     * @throws IOException When file can not be read
+     */
+    public boolean readAppended(long limit) throws IOException {
+        long changesBefore = accumulator.getChangesCount();
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < offset) {
+                reset();
+                changesBefore = -1;
+            }
+            size = Math.min(size, limit);
+
+            while (offset < size) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), size - offset));
+                int read = channel.read(buffer, offset);
+                if (read <= 0) break;
+
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    scanner.accept(buffer.get());
+                }
+                offset += read;
+            }
+        }
+
+        return accumulator.getChangesCount() != changesBefore;
+    }
+
+    /**
+     * Watch the log file until the thread is interrupted.
+     * File system events wake the follower up, without events the file is checked every poll interval.
+     *
+     * @param onChange Called with current footprint each time the footprint changed
+     * @throws IOException          When file can not be read
+     * @throws InterruptedException When thread was interrupted
+     */
+    public void follow(Consumer<FootprintAccumulator> onChange) throws IOException, InterruptedException {
+        poll(() -> {
+            if (Files.exists(logFile) && readAppended()) {
+                onChange.accept(accumulator);
+            }
+        });
+    }
+
+    /**
+     * Watch the log file until the thread is interrupted, like {@link #follow(Consumer)},
+     * but call back after every check, also when nothing was appended (for example to expire a time window)
+     *
+     * @param onPoll Called after each check of the file
+     * @throws IOException          When file can not be read
+     * @throws InterruptedException When thread was interrupted
+     */
+    public void watch(Runnable onPoll) throws IOException, InterruptedException {
+        poll(() -> {
+            if (Files.exists(logFile)) {
+                readAppended();
+            }
+            onPoll.run();
+        });
+    }
+
+    private void poll(Check check) throws IOException, InterruptedException {
+        Path directory = logFile.toAbsolutePath().getParent();
+
+        try (WatchService watcher = directory.getFileSystem().newWatchService()) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                check.run();
+
+                WatchKey key = watcher.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        }
+    }
+
+    /**
+     * Close the last line as a complete case, also when it has no line separator.
+     * Call when reading stops for good, next bytes would start a new case anyway.
+     */
+    public void finish() {
+        scanner.finish();
+    }
+
+    private interface Check {
+        void run() throws IOException;
+    }
+
+    public FootprintAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * @return Number of bytes already read
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,254 @@
+package reader;
+
+import parsers.FootprintAccumulator;
+import parsers.TokenScanner;
+import parsers.Tokenizer;
+import structures.ActivityDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedLogReader extends ProcessLogReader {
+    private static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private final long windowSize;
+
+    /**
+     * Reader which memory-maps the log file and scans raw UTF-8 bytes.
+     * No String is created for lines - activities go straight into the footprint.
+     */
+    public MappedLogReader() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize Number of bytes mapped at once
+     */
+    public MappedLogReader(long windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Read process event log from file, mapped in windows.
+     * Lines are separated by `\n`, `\r` or `\r\n`. Gzip-compressed files are read by {@link GzipLogReader}.
+     *
+     * @param logFile Path to log file
+     * @return Footprint with unique activities and direct successions
+     * @throws IOException When file can not be read
+     */
+    @Override
+    public FootprintAccumulator readFootprint(Path logFile) throws IOException {
+        if (GzipLogReader.isGzip(logFile)) {
+            GzipLogReader reader = new GzipLogReader();
+            reader.setTokenizer(getTokenizer());
+            reader.setTrackVariants(isTrackVariants());
+            return reader.readFootprint(logFile);
+        }
+
+        return readFootprint(logFile, Long.MAX_VALUE);
+    }
+
+    /**
+     * Read only the beginning of the log file, bytes appended later are not included
+     *
+     * @param logFile Path to log file
+     * @param length  Maximum number of bytes to read
+     * @return Footprint with unique activities and direct successions
+     * @throws IOException When file can not be read
+     */
+    public FootprintAccumulator readFootprint(Path logFile, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            return readRange(channel, 0, Math.min(length, channel.size()));
+        }
+    }
+
+    /**
+     * Read log already loaded into memory, for example sent over the network
+     *
+     * @param content UTF-8 bytes of the log, read from position to limit
+     * @return Footprint with unique activities and direct successions
+     */
+    public FootprintAccumulator readFootprint(ByteBuffer content) {
+        FootprintAccumulator accumulator = newAccumulator();
+        Utf8Scanner scanner = new Utf8Scanner(accumulator, getTokenizer());
+
+        while (content.hasRemaining()) {
+            scanner.accept(content.get());
+        }
+
+        scanner.finish();
+        return accumulator;
+    }
+
+    /**
+     * Read part of the log file, range should start at the beginning of a line
+     *
+     * @param channel Opened log file
+     * @param start   First byte of the range
+     * @param end     Byte after the last byte of the range
+     * @return Footprint with unique activities and direct successions in the range
+     * @throws IOException When file can not be read
+     */
+    protected FootprintAccumulator readRange(FileChannel channel, long start, long end) throws IOException {
+        FootprintAccumulator accumulator = newAccumulator();
+        Utf8Scanner scanner = new Utf8Scanner(accumulator, getTokenizer());
+
+        for (long position = start; position < end; position += windowSize) {
+            long size = Math.min(windowSize, end - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+
+            while (window.hasRemaining()) {
+                scanner.accept(window.get());
+            }
+        }
+
+        scanner.finish();
+        return accumulator;
+    }
+
+    /**
+     * Find the beginning of the next line
+     *
+     * @param channel  Opened log file
+     * @param position First byte to check
+     * @param fileSize Number of bytes to search
+     * @return Position after the next `\n` or file size when there is no more lines
+     * @throws IOException When file can not be read
+     */
+    static long nextLineStart(FileChannel channel, long position, long fileSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        while (position < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+
+            for (int index = 0; index < Math.min(read, fileSize - position); index++) {
+                if (buffer.get(index) == '\n') return position + index + 1;
+            }
+            position += read;
+        }
+
+        return fileSize;
+    }
+
+    /**
+     * Receiver of activity ids found by the scanner
+     */
+    interface ActivitySink {
+        void acceptActivityId(int id);
+
+        void endCase();
+    }
+
+    /**
+     * Byte by byte UTF-8 decoder which keeps its state between mapped windows
+     */
+    static class Utf8Scanner {
+        private final ActivitySink sink;
+        private final TokenScanner tokens;
+        private boolean openCase = false;
+        private boolean afterCarriageReturn = false;
+        private int codePoint = 0;
+        private int pendingBytes = 0;
+
+        Utf8Scanner(FootprintAccumulator accumulator, Tokenizer tokenizer) {
+            this(accumulator.getDictionary(), tokenizer, new ActivitySink() {
+                @Override
+                public void acceptActivityId(int id) {
+                    accumulator.acceptActivityId(id);
+                }
+
+                @Override
+                public void endCase() {
+                    accumulator.endCase();
+                }
+            });
+        }
+
+        /**
+         * @param dictionary Dictionary which interns activity names
+         * @param tokenizer  Rules which split case records into activity names
+         * @param sink       Receiver of interned activity ids
+         */
+        Utf8Scanner(ActivityDictionary dictionary, Tokenizer tokenizer, ActivitySink sink) {
+            this.sink = sink;
+            this.tokens = tokenizer.newScanner(dictionary);
+        }
+
+        private void acceptActivity(int codePoint) {
+            int id = tokens.accept(codePoint);
+            if (id >= 0) sink.acceptActivityId(id);
+        }
+
+        private void endCase() {
+            int id = tokens.endCase();
+            if (id >= 0) sink.acceptActivityId(id);
+            sink.endCase();
+        }
+
+        void accept(byte value) {
+            if (value >= 0) {
+                if (pendingBytes > 0) malformed();
+                acceptAscii(value);
+            } else if ((value & 0xC0) == 0x80) {
+                if (pendingBytes == 0) {
+                    acceptActivity(REPLACEMENT_CHARACTER);
+                    openCase = true;
+                    return;
+                }
+
+                codePoint = (codePoint << 6) | (value & 0x3F);
+                if (--pendingBytes == 0) {
+                    acceptActivity(codePoint);
+                }
+            } else {
+                if (pendingBytes > 0) malformed();
+
+                if ((value & 0xE0) == 0xC0) {
+                    codePoint = value & 0x1F;
+                    pendingBytes = 1;
+                } else if ((value & 0xF0) == 0xE0) {
+                    codePoint = value & 0x0F;
+                    pendingBytes = 2;
+                } else {
+                    codePoint = value & 0x07;
+                    pendingBytes = 3;
+                }
+                openCase = true;
+                afterCarriageReturn = false;
+            }
+        }
+
+        private void acceptAscii(byte value) {
+            if (value == '\n') {
+                if (!afterCarriageReturn) endCase();
+                afterCarriageReturn = false;
+                openCase = false;
+            } else if (value == '\r') {
+                endCase();
+                afterCarriageReturn = true;
+                openCase = false;
+            } else {
+                acceptActivity(value);
+                afterCarriageReturn = false;
+                openCase = true;
+            }
+        }
+
+        private void malformed() {
+            pendingBytes = 0;
+            acceptActivity(REPLACEMENT_CHARACTER);
+        }
+
+        void finish() {
+            if (pendingBytes > 0) malformed();
+            if (openCase) endCase();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package reader;
+
+import parsers.FootprintAccumulator;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ParallelLogReader extends MappedLogReader {
+    private static final long MINIMUM_RANGE_SIZE = 4L * 1024 * 1024;
+
+    private final int threads;
+    private final long minimumRangeSize;
+
+    /**
+     * Reader which splits the log file into byte ranges at line boundaries.
+     * Each range is read by separate worker into own footprint, partial footprints are merged in log order.
+     *
+     * @param threads Number of workers
+     */
+    public ParallelLogReader(int threads) {
+        this(threads, MINIMUM_RANGE_SIZE);
+    }
+
+    /**
+     * @param threads          Number of workers
+     * @param minimumRangeSize Smaller files are split into less ranges, so each worker has enough work
+     */
+    public ParallelLogReader(int threads, long minimumRangeSize) {
+        this.threads = Math.max(1, threads);
+        this.minimumRangeSize = Math.max(1, minimumRangeSize);
+    }
+
+    @Override
+    public FootprintAccumulator readFootprint(Path logFile, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long fileSize = Math.min(length, channel.size());
+            long[] boundaries = splitIntoRanges(channel, fileSize);
+            if (boundaries.length == 2) {
+                return readRange(channel, 0, fileSize);
+            }
+
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(threads, boundaries.length - 1));
+            try {
+                List<Future<FootprintAccumulator>> partials = new ArrayList<>();
+                for (int range = 1; range < boundaries.length; range++) {
+                    long start = boundaries[range - 1];
+                    long end = boundaries[range];
+                    partials.add(workers.submit(() -> readRange(channel, start, end)));
+                }
+
+                FootprintAccumulator accumulator = newAccumulator();
+                for (Future<FootprintAccumulator> partial : partials) {
+                    FootprintAccumulator merged = partial.get();
+                    accumulator.merge(merged);
+                    merged.closeVariants();
+                }
+
+                return accumulator;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Reading log file was interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IOException("Reading log file failed", e.getCause());
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Split file into ranges of similar size, each range (except the first one) starts after `\n`
+     *
+     * @param channel  Opened log file
+     * @param fileSize Number of bytes to split
+     * @return Sorted boundaries - range i is [boundaries[i], boundaries[i + 1])
+     * @throws IOException When file can not be read
+     */
+    private long[] splitIntoRanges(FileChannel channel, long fileSize) throws IOException {
+        int ranges = (int) Math.max(1, Math.min(threads, fileSize / minimumRangeSize));
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+
+        for (int range = 1; range < ranges; range++) {
+            long boundary = nextLineStart(channel, Math.max(fileSize / ranges * range, boundaries.get(boundaries.size() - 1)), fileSize);
+            if (boundary >= fileSize) break;
+            if (boundary > boundaries.get(boundaries.size() - 1)) boundaries.add(boundary);
+        }
+        boundaries.add(fileSize);
+
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -1,11 +1,51 @@
 package reader;
 
 import interfaces.ReadLogFile;
+import parsers.FootprintAccumulator;
+import parsers.TokenScanner;
+import parsers.Tokenizer;
 import structures.Activity;
+import structures.ActivityDictionary;
+import structures.VariantTable;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
 public class ProcessLogReader implements ReadLogFile {
+    private boolean trackVariants = false;
+    private Tokenizer tokenizer = Tokenizer.singleCharacter();
+
+    /**
+     * @param trackVariants When true, footprints also count distinct traces in the variant table
+     */
+    public void setTrackVariants(boolean trackVariants) {
+        this.trackVariants = trackVariants;
+    }
+
+    public boolean isTrackVariants() {
+        return trackVariants;
+    }
+
+    /**
+     * @param tokenizer Rules which split case records into activity names (default: single character names)
+     */
+    public void setTokenizer(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    public Tokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * @return New empty accumulator for the footprint
+     */
+    protected FootprintAccumulator newAccumulator() {
+        return new FootprintAccumulator(trackVariants);
+    }
+
     /**
      * Read process event log and prepare list of activities in each line
      *
@@ -13,44 +53,113 @@ public class ProcessLogReader implements ReadLogFile {
      * @return List with list of activities (each line as separated list)
      */
     public List<List<Activity>> readProcessLog(Scanner scanner) {
+        ActivityDictionary dictionary = new ActivityDictionary();
         List<List<Activity>> activityInCases = new ArrayList<>();
 
-        for (String caseRecord : readWholeLog(scanner)) {
-            activityInCases.add(stringCaseToActivityList(caseRecord));
+        for (int[] caseRecord : readEncodedLog(scanner, dictionary)) {
+            List<Activity> activityInCase = new ArrayList<>(caseRecord.length);
+            for (int id : caseRecord) {
+                activityInCase.add(dictionary.activity(id));
+            }
+            activityInCases.add(activityInCase);
         }
 
         return activityInCases;
     }
 
     /**
-     * Read whole log file with reducing duplicates of cases
+     * Read process event log and encode activities in each line as ids from the dictionary
      *
-     * @param scanner Log file
-     * @return Unique cases as set of strings
+     * @param scanner    Scanner - log file
+     * @param dictionary Dictionary which interns activity names
+     * @return List with activity ids (each line as separated array)
      */
-    private Set<String> readWholeLog(Scanner scanner) {
-        Set<String> casesInLog = new HashSet<>();
+    public List<int[]> readEncodedLog(Scanner scanner, ActivityDictionary dictionary) {
+        VariantTable variants = readVariants(scanner, dictionary);
+        List<int[]> encodedCases = new ArrayList<>(variants.size());
+
+        for (int variant = 0; variant < variants.size(); variant++) {
+            encodedCases.add(variants.trace(variant));
+        }
+
+        return encodedCases;
+    }
+
+    /**
+     * Read whole log file and count distinct cases (variants) instead of dropping duplicates
+     *
+     * @param scanner    Scanner - log file
+     * @param dictionary Dictionary which interns activity names
+     * @return Distinct cases encoded as activity ids with number of occurrences
+     */
+    public VariantTable readVariants(Scanner scanner, ActivityDictionary dictionary) {
+        VariantTable variants = new VariantTable();
+        TokenScanner tokens = tokenizer.newScanner(dictionary);
+        int[] caseBuffer = new int[64];
+
         while (scanner.hasNextLine()) {
-            casesInLog.add(scanner.nextLine());
+            String caseRecord = scanner.nextLine();
+            if (caseRecord.length() > caseBuffer.length) {
+                caseBuffer = new int[Math.max(caseRecord.length(), caseBuffer.length * 2)];
+            }
+
+            variants.add(caseBuffer, encodeCase(caseRecord, tokens, caseBuffer));
         }
 
-        return casesInLog;
+        return variants;
     }
 
     /**
-     * Remove empty spaces from case record, parse into list of activities
+     * Read process event log in a single pass, each line goes straight into the footprint.
+     * Cases are not materialized, so log can be bigger than available memory.
      *
-     * @param caseRecord Single case from log file
-     * @return List of activities
+     * @param scanner Scanner - log file
+     * @return Footprint with unique activities and direct successions
      */
-    private List<Activity> stringCaseToActivityList(String caseRecord) {
-        List<Activity> activityInCase = new ArrayList<>();
+    public FootprintAccumulator readFootprint(Scanner scanner) {
+        FootprintAccumulator accumulator = newAccumulator();
+        TokenScanner tokens = tokenizer.newScanner(accumulator.getDictionary());
+        while (scanner.hasNextLine()) {
+            accumulator.acceptCase(scanner.nextLine(), tokens);
+        }
+
+        return accumulator;
+    }
+
+    /**
+     * Read process event log from file in a single pass
+     *
+     * @param logFile Path to log file (UTF-8)
+     * @return Footprint with unique activities and direct successions
+     * @throws IOException When file can not be read
+     */
+    public FootprintAccumulator readFootprint(Path logFile) throws IOException {
+        try (Scanner scanner = new Scanner(logFile, StandardCharsets.UTF_8)) {
+            return readFootprint(scanner);
+        }
+    }
+
+    /**
+     * Split case record into activity names, encode each activity as id from the dictionary
+     *
+     * @param caseRecord     Single case from log file
+     * @param tokens         Scanner which interns activity names
+     * @param activityInCase Buffer for activity ids, at least as long as the case record
+     * @return Number of activities in the case
+     */
+    private int encodeCase(String caseRecord, TokenScanner tokens, int[] activityInCase) {
+        int size = 0;
+
+        for (int position = 0; position < caseRecord.length(); ) {
+            int name = caseRecord.codePointAt(position);
+            position += Character.charCount(name);
 
-        for (String name : caseRecord.split("(?!^)")) {
-            if (!name.trim().equals(""))
-                activityInCase.add(new Activity(name.trim()));
+            int id = tokens.accept(name);
+            if (id >= 0) activityInCase[size++] = id;
         }
 
-        return activityInCase;
+        int id = tokens.endCase();
+        if (id >= 0) activityInCase[size++] = id;
+        return size;
     }
 }
@@ -0,0 +1,222 @@
+package reader;
+
+import parsers.FootprintAccumulator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SamplingLogReader extends MappedLogReader {
+    private static final long DEFAULT_STRIDE = 1024 * 1024;
+
+    private final long quietCases;
+    private final long quietBytes;
+    private final int regions;
+    private final long stride;
+
+    /**
+     * Approximate reader which stops as soon as the footprint converges,
+     * when no new activity, direct succession or length-two loop appeared for given number of cases or bytes.
+     * With one region cases are read in log order. With more regions the file is split into regions at line
+     * boundaries and read in turns (a stride of lines from each region), so the sample covers the whole file.
+     *
+     * @param quietCases Stop after this many cases without change, 0 disables the limit
+     * @param quietBytes Stop after this many bytes without change, 0 disables the limit
+     * @param regions    Number of file regions read in turns
+     */
+    public SamplingLogReader(long quietCases, long quietBytes, int regions) {
+        this(quietCases, quietBytes, regions, DEFAULT_STRIDE);
+    }
+
+    /**
+     * @param quietCases Stop after this many cases without change, 0 disables the limit
+     * @param quietBytes Stop after this many bytes without change, 0 disables the limit
+     * @param regions    Number of file regions read in turns
+     * @param stride     Number of bytes read from a region in one turn, extended to the end of the line
+     */
+    SamplingLogReader(long quietCases, long quietBytes, int regions, long stride) {
+        if (quietCases < 0 || quietBytes < 0 || (quietCases == 0 && quietBytes == 0)) {
+            throw new IllegalArgumentException("Sampling needs a positive number of cases or bytes without change");
+        }
+
+        this.quietCases = quietCases;
+        this.quietBytes = quietBytes;
+        this.regions = Math.max(1, regions);
+        this.stride = Math.max(1, stride);
+    }
+
+    @Override
+    public FootprintAccumulator readFootprint(Path logFile) throws IOException {
+        return readSample(logFile).getAccumulator();
+    }
+
+    @Override
+    public FootprintAccumulator readFootprint(Path logFile, long length) throws IOException {
+        return readSample(logFile, length).getAccumulator();
+    }
+
+    /**
+     * Read uncompressed log file until the footprint converges
+     *
+     * @param logFile Path to log file
+     * @return Footprint of the sample with its size and convergence point
+     * @throws IOException When file can not be read or is compressed
+     */
+    public Sample readSample(Path logFile) throws IOException {
+        return readSample(logFile, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param logFile Path to log file
+     * @param length  Maximum number of bytes to read
+     * @return Footprint of the sample with its size and convergence point
+     * @throws IOException When file can not be read or is compressed
+     */
+    public Sample readSample(Path logFile, long length) throws IOException {
+        if (GzipLogReader.isGzip(logFile)) {
+            throw new IOException("Compressed log file can not be sampled, it can only be read whole");
+        }
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long fileSize = Math.min(length, channel.size());
+            long[] cursors = new long[regions];
+            long[] ends = new long[regions];
+            for (int region = 0; region < regions; region++) {
+                cursors[region] = region == 0 ? 0 : nextLineStart(channel, fileSize / regions * region, fileSize);
+                if (region > 0) ends[region - 1] = cursors[region];
+            }
+            ends[regions - 1] = fileSize;
+
+            Sample sample = new Sample(newAccumulator(), fileSize, quietCases, quietBytes);
+            Utf8Scanner scanner = new Utf8Scanner(sample.accumulator, getTokenizer());
+
+            for (boolean remaining = true; remaining && !sample.converged; ) {
+                remaining = false;
+
+                for (int region = 0; region < regions && !sample.converged; region++) {
+                    if (cursors[region] >= ends[region]) continue;
+
+                    long end = nextLineStart(channel, Math.min(cursors[region] + stride, ends[region]) - 1, ends[region]);
+                    cursors[region] = scan(channel, cursors[region], end, scanner, sample);
+                    remaining |= cursors[region] < ends[region];
+                }
+            }
+
+            return sample;
+        }
+    }
+
+    /**
+     * Scan whole lines of the range, checking convergence at the end of each line
+     *
+     * @return Position after the last scanned byte
+     */
+    private long scan(FileChannel channel, long start, long end, Utf8Scanner scanner, Sample sample) throws IOException {
+        MappedByteBuffer lines = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+        while (lines.hasRemaining()) {
+            byte value = lines.get();
+            scanner.accept(value);
+
+            if ((value == '\n' || value == '\r') && sample.check(sample.bytesBefore + lines.position())) {
+                break;
+            }
+        }
+
+        scanner.finish();
+        sample.bytesBefore += lines.position();
+        sample.check(sample.bytesBefore);
+        return start + lines.position();
+    }
+
+    /**
+     * Footprint of the sample with statistics needed to decide whether exact run is worth it
+     */
+    public static class Sample {
+        private final FootprintAccumulator accumulator;
+        private final long logSize;
+        private final long quietCases;
+        private final long quietBytes;
+        private long bytesBefore = 0;
+        private long lastChangesCount = 0;
+        private long convergedAtCase = 0;
+        private long convergedAtByte = 0;
+        private long bytesRead = 0;
+        private boolean converged = false;
+
+        private Sample(FootprintAccumulator accumulator, long logSize, long quietCases, long quietBytes) {
+            this.accumulator = accumulator;
+            this.logSize = logSize;
+            this.quietCases = quietCases;
+            this.quietBytes = quietBytes;
+        }
+
+        /**
+         * Remember the last change of the footprint and decide whether the sample is big enough
+         *
+         * @param bytes Number of bytes read so far
+         * @return True when footprint did not change for the configured number of cases or bytes
+         */
+        private boolean check(long bytes) {
+            bytesRead = bytes;
+            if (accumulator.getChangesCount() != lastChangesCount) {
+                lastChangesCount = accumulator.getChangesCount();
+                convergedAtCase = accumulator.getCasesCount();
+                convergedAtByte = bytes;
+                return false;
+            }
+
+            converged = (quietCases > 0 && accumulator.getCasesCount() - convergedAtCase >= quietCases)
+                    || (quietBytes > 0 && bytes - convergedAtByte >= quietBytes);
+            return converged;
+        }
+
+        public FootprintAccumulator getAccumulator() {
+            return accumulator;
+        }
+
+        /**
+         * @return Number of cases in the sample
+         */
+        public long getCasesCount() {
+            return accumulator.getCasesCount();
+        }
+
+        /**
+         * @return Number of bytes in the sample
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * @return Number of bytes of the whole log
+         */
+        public long getLogSize() {
+            return logSize;
+        }
+
+        /**
+         * @return Number of cases read when the footprint changed for the last time
+         */
+        public long getConvergedAtCase() {
+            return convergedAtCase;
+        }
+
+        /**
+         * @return Number of bytes read when the footprint changed for the last time
+         */
+        public long getConvergedAtByte() {
+            return convergedAtByte;
+        }
+
+        /**
+         * @return True when reading stopped early, false when the whole log was read before the footprint converged
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import metrics.MiningMetrics;
+import parsers.ActivityRelationsBuilder;
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
+import reader.MappedLogReader;
+import structures.EntryPair;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class MiningServer {
+    private static final int QUEUED_REQUESTS_PER_WORKER = 16;
+
+    private final int port;
+    private final ThreadPoolExecutor workers;
+    private final ResultCache results;
+    private final ResultCache digests;
+    private HttpServer server;
+
+    /**
+     * HTTP server on the loopback interface which keeps the JVM (and JIT) warm between queries.
+     * <ul>
+     * <li>`GET /mine?path=PATH` - mine log file from the local file system</li>
+     * <li>`POST /mine` - mine log sent as request body</li>
+     * <li>`GET /stats` - cache statistics and mining metrics as JSON</li>
+     * </ul>
+     * Both `/mine` calls accept `tokenizer` parameter and answer with maximal pairs, one per line.
+     * Results are cached by SHA-256 of the log content, so the same log under any path or sent inline is mined once.
+     * Requests are served by bounded pool, when its queue is full the server answers 503.
+     *
+     * @param port      Port to listen on, 0 picks a free port
+     * @param threads   Number of workers
+     * @param cacheSize Maximum number of cached results
+     */
+    public MiningServer(int port, int threads, int cacheSize) {
+        int workersCount = Math.max(1, threads);
+
+        this.port = port;
+        this.workers = new ThreadPoolExecutor(workersCount, workersCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workersCount * QUEUED_REQUESTS_PER_WORKER));
+        this.results = new ResultCache(cacheSize);
+        this.digests = new ResultCache(cacheSize);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/mine", exchange -> dispatch(exchange, true));
+        server.createContext("/stats", exchange -> dispatch(exchange, false));
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests, wait a moment for requests in progress
+     */
+    public void stop() {
+        server.stop(1);
+        workers.shutdown();
+    }
+
+    /**
+     * @return Port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public ResultCache getCache() {
+        return results;
+    }
+
+    private void dispatch(HttpExchange exchange, boolean mine) {
+        try {
+            workers.execute(() -> {
+                try {
+                    if (mine) {
+                        mine(exchange);
+                    } else {
+                        respond(exchange, 200, "application/json", "{\"cache\":" + results.toJson()
+                                + ",\"metrics\":" + MiningMetrics.global().toJson() + "}");
+                    }
+                } catch (IOException e) {
+                    // Client is gone, there is nobody to answer
+                } catch (RuntimeException e) {
+                    try {
+                        respond(exchange, 500, "text/plain", "Log can not be mined: " + e);
+                    } catch (IOException ignored) {
+                        // Response was already started or client is gone
+                    }
+                } finally {
+                    exchange.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            try {
+                respond(exchange, 503, "text/plain", "Server is busy, try again later");
+            } catch (IOException ignored) {
+                exchange.close();
+            }
+        }
+    }
+
+    private void mine(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        try {
+            // Cache key uses canonical name, so equivalent spellings like `delimited` and `delimited:,` share the entry
+            Tokenizer tokenizer = Tokenizer.parse(parameters.getOrDefault("tokenizer", "char"));
+
+            if ("POST".equals(exchange.getRequestMethod())) {
+                byte[] content;
+                try (InputStream body = exchange.getRequestBody()) {
+                    content = body.readAllBytes();
+                }
+
+                String key = digest(content) + ":" + tokenizer;
+                String result = results.get(key);
+                if (result == null) {
+                    MappedLogReader reader = new MappedLogReader();
+                    reader.setTokenizer(tokenizer);
+                    result = format(reader.readFootprint(ByteBuffer.wrap(content)));
+                    results.put(key, result);
+                }
+                respond(exchange, 200, "text/plain", result);
+            } else if ("GET".equals(exchange.getRequestMethod()) && parameters.containsKey("path")) {
+                Path logFile = Paths.get(parameters.get("path"));
+                String key = digest(logFile) + ":" + tokenizer;
+                String result = results.get(key);
+                if (result == null) {
+                    MappedLogReader reader = new MappedLogReader();
+                    reader.setTokenizer(tokenizer);
+                    result = format(reader.readFootprint(logFile));
+                    results.put(key, result);
+                }
+                respond(exchange, 200, "text/plain", result);
+            } else {
+                respond(exchange, 400, "text/plain", "Use GET /mine?path=PATH or POST /mine with log as body");
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "text/plain", e.getMessage());
+        } catch (NoSuchFileException e) {
+            respond(exchange, 404, "text/plain", "Log file not found: " + e.getMessage());
+        } catch (IOException e) {
+            respond(exchange, 500, "text/plain", "Log file can not be read: " + e.getMessage());
+        }
+    }
+
+    private static String format(FootprintAccumulator processLog) {
+        MiningMetrics.global().recordLog(processLog.getCasesCount(), processLog.getVariantsCount(), processLog.getDictionary().size());
+        List<EntryPair> pairs = new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(processLog);
+        StringBuilder result = new StringBuilder();
+        for (EntryPair pair : pairs) {
+            result.append(pair).append('\n');
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Digest of the log file, remembered for the same path, size and modification time,
+     * so repeated queries for unchanged file do not read it again
+     */
+    private String digest(Path logFile) throws IOException {
+        String stamp = logFile.toAbsolutePath().normalize() + "@" + Files.size(logFile) + "@" + Files.getLastModifiedTime(logFile).toMillis();
+        String digest = digests.get(stamp);
+        if (digest != null) return digest;
+
+        MessageDigest sha = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(logFile)) {
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                sha.update(buffer, 0, read);
+            }
+        }
+
+        digest = toHex(sha.digest());
+        digests.put(stamp, digest);
+        return digest;
+    }
+
+    private static String digest(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            hex.append(Character.forDigit((value >>> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) return parameters;
+
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+
+        return parameters;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, content.length == 0 ? -1 : content.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content);
+        }
+    }
+}
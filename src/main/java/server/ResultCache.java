@@ -0,0 +1,76 @@
+package server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ResultCache {
+    private final int capacity;
+    private final Map<String, String> entries;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Size-bounded cache which removes the least recently used entry when full.
+     * All methods are synchronized, each call holds the lock only for a single map operation.
+     *
+     * @param capacity Maximum number of entries
+     */
+    public ResultCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param key Key of the entry
+     * @return Cached value or null when missing (counted as miss)
+     */
+    public synchronized String get(String key) {
+        String value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+
+        return value;
+    }
+
+    public synchronized void put(String key, String value) {
+        entries.put(key, value);
+
+        if (entries.size() > capacity) {
+            String eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+            evictions++;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Statistics as single JSON object
+     */
+    public synchronized String toJson() {
+        return "{\"hits\":" + hits + ",\"misses\":" + misses + ",\"evictions\":" + evictions
+                + ",\"size\":" + entries.size() + ",\"capacity\":" + capacity + "}";
+    }
+}
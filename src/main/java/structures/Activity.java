@@ -1,12 +1,28 @@
 package structures;
 
 public class Activity {
+    private final int id;
     private final String name;
 
     public Activity(String name) {
+        this(-1, name);
+    }
+
+    /**
+     * Activity interned in the dictionary
+     *
+     * @param id   Dense id assigned by ActivityDictionary, -1 when activity is not interned
+     * @param name Name of the activity
+     */
+    public Activity(int id, String name) {
+        this.id = id;
         this.name = name;
     }
 
+    public int id() {
+        return id;
+    }
+
     public String activityName() {
         return name;
     }
@@ -17,14 +33,15 @@ public class Activity {
     }
 
     /**
-     * Two objects are equal if the same class AND names are the same
+     * Two objects are equal if both are activities AND names are the same
      *
      * @param obj Object to compare
      * @return true if equals, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        if (obj.getClass() != this.getClass()) return false;
+        if (this == obj) return true;
+        if (!(obj instanceof Activity)) return false;
 
         return ((Activity) obj).name.equals(this.name);
     }
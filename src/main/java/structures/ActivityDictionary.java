@@ -0,0 +1,180 @@
+package structures;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class ActivityDictionary {
+    private static final int CODE_POINT_TABLE_LIMIT = Character.MAX_VALUE + 1;
+
+    private final List<Activity> activities = new ArrayList<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private int[] idsByCodePoint = new int[128];
+    private byte[][] utf8Names = new byte[16][];
+    private int[] utf8Hashes = new int[16];
+    private int[] utf8Slots = newSlots(32);
+    private int utf8Size = 0;
+
+    /**
+     * Dictionary which interns activity names to dense ids (0, 1, 2, ...) in order of first appearance.
+     * Names are resolved only once at ingest, later stages work on ids and resolve names only for printing.
+     */
+    public ActivityDictionary() {
+        Arrays.fill(idsByCodePoint, -1);
+    }
+
+    /**
+     * Find id of the activity with single code point name, new activities receive next free id
+     *
+     * @param codePoint Code point which is the name of the activity
+     * @return Id of the activity
+     */
+    public int intern(int codePoint) {
+        if (codePoint >= CODE_POINT_TABLE_LIMIT) {
+            return intern(new String(Character.toChars(codePoint)));
+        }
+
+        if (codePoint >= idsByCodePoint.length) {
+            int previousLength = idsByCodePoint.length;
+            idsByCodePoint = Arrays.copyOf(idsByCodePoint, Math.min(CODE_POINT_TABLE_LIMIT, Math.max(codePoint + 1, previousLength * 2)));
+            Arrays.fill(idsByCodePoint, previousLength, idsByCodePoint.length, -1);
+        }
+
+        int id = idsByCodePoint[codePoint];
+        if (id < 0) {
+            id = register(String.valueOf((char) codePoint));
+            idsByCodePoint[codePoint] = id;
+        }
+
+        return id;
+    }
+
+    /**
+     * Find id of the activity, new activities receive next free id
+     *
+     * @param name Name of the activity
+     * @return Id of the activity
+     */
+    public int intern(String name) {
+        if (name.length() == 1) {
+            return intern(name.charAt(0));
+        }
+
+        Integer id = idsByName.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /**
+     * Find id of the activity with name given as UTF-8 bytes, new activities receive next free id.
+     * Known names are found without creating a String, so tokenizers can pass slices of their buffers.
+     *
+     * @param utf8   Buffer with encoded name
+     * @param offset First byte of the name
+     * @param length Number of bytes of the name
+     * @return Id of the activity
+     */
+    public int intern(byte[] utf8, int offset, int length) {
+        int hash = hash(utf8, offset, length);
+        int mask = utf8Slots.length - 1;
+        int slot = hash & mask;
+
+        for (int id = utf8Slots[slot]; id >= 0; id = utf8Slots[slot]) {
+            byte[] name = utf8Names[id];
+            if (utf8Hashes[id] == hash && Arrays.equals(name, 0, name.length, utf8, offset, offset + length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = intern(new String(utf8, offset, length, StandardCharsets.UTF_8));
+        if (id >= utf8Names.length) {
+            int capacity = Math.max(id + 1, utf8Names.length * 2);
+            utf8Names = Arrays.copyOf(utf8Names, capacity);
+            utf8Hashes = Arrays.copyOf(utf8Hashes, capacity);
+        }
+
+        // Malformed bytes may decode to already indexed name, such name keeps its first encoding
+        if (utf8Names[id] == null) {
+            utf8Names[id] = Arrays.copyOfRange(utf8, offset, offset + length);
+            utf8Hashes[id] = hash;
+            utf8Slots[slot] = id;
+            if (++utf8Size * 2 > utf8Slots.length) rehashUtf8Names();
+        }
+
+        return id;
+    }
+
+    private void rehashUtf8Names() {
+        utf8Slots = newSlots(utf8Slots.length * 2);
+        int mask = utf8Slots.length - 1;
+
+        for (int id = 0; id < utf8Names.length; id++) {
+            if (utf8Names[id] == null) continue;
+
+            int slot = utf8Hashes[id] & mask;
+            while (utf8Slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            utf8Slots[slot] = id;
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+
+        return slots;
+    }
+
+    private static int hash(byte[] utf8, int offset, int length) {
+        int hash = length;
+        for (int position = offset; position < offset + length; position++) {
+            hash = 31 * hash + utf8[position];
+        }
+
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private int register(String name) {
+        int id = activities.size();
+        activities.add(new Activity(id, name));
+        idsByName.put(name, id);
+
+        return id;
+    }
+
+    /**
+     * Find id of known activity
+     *
+     * @param activity Activity from this or any other dictionary
+     * @return Id of the activity or -1 when activity is unknown
+     */
+    public int idOf(Activity activity) {
+        int id = activity.id();
+        if (id >= 0 && id < activities.size() && activities.get(id) == activity) {
+            return id;
+        }
+
+        Integer knownId = idsByName.get(activity.activityName());
+        return knownId != null ? knownId : -1;
+    }
+
+    public Activity activity(int id) {
+        return activities.get(id);
+    }
+
+    public String name(int id) {
+        return activities.get(id).activityName();
+    }
+
+    public int size() {
+        return activities.size();
+    }
+
+    /**
+     * @return Unique activities indexed by id
+     */
+    public List<Activity> activities() {
+        return Collections.unmodifiableList(activities);
+    }
+}
@@ -16,9 +16,20 @@ public class ActivityDirectSuccession {
         this.successor = successor;
     }
 
+    public Activity getPredecessor() {
+        return predecessor;
+    }
+
+    public Activity getSuccessor() {
+        return successor;
+    }
+
+    /**
+     * Hash depends on the order, so reversed succession (b, a) does not collide with (a, b)
+     */
     @Override
     public int hashCode() {
-        return this.predecessor.hashCode() + this.successor.hashCode();
+        return 31 * this.predecessor.hashCode() + this.successor.hashCode();
     }
 
     /**
@@ -1,11 +1,13 @@
 package structures;
 
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
 
 public class EntryPair {
-    private final Set<Activity> left;
-    private final Set<Activity> right;
+    private final ActivityDictionary dictionary;
+    private final int[] leftIds;
+    private final int[] rightIds;
+    private Set<Activity> left;
+    private Set<Activity> right;
 
     /**
      * Pair with two sets - left and right part
@@ -15,23 +17,102 @@ public class EntryPair {
      * @param right Right set of activities, all should be independent (# as relation between each)
      */
     public EntryPair(Set<Activity> left, Set<Activity> right) {
+        this.dictionary = null;
+        this.leftIds = null;
+        this.rightIds = null;
         this.left = left;
         this.right = right;
     }
 
+    /**
+     * Pair with both parts stored as activity ids, activities are resolved only when needed
+     *
+     * @param dictionary Dictionary which assigned the ids
+     * @param leftIds    Sorted ids of activities in left part
+     * @param rightIds   Sorted ids of activities in right part
+     */
+    public EntryPair(ActivityDictionary dictionary, int[] leftIds, int[] rightIds) {
+        this.dictionary = dictionary;
+        this.leftIds = leftIds;
+        this.rightIds = rightIds;
+    }
+
     public Set<Activity> getLeft() {
+        if (left == null) {
+            left = resolve(leftIds);
+        }
+
         return left;
     }
 
     public Set<Activity> getRight() {
+        if (right == null) {
+            right = resolve(rightIds);
+        }
+
         return right;
     }
 
+    /**
+     * @return Sorted ids of activities in left part, null when pair was created from activities
+     */
+    public int[] getLeftIds() {
+        return leftIds;
+    }
+
+    /**
+     * @return Sorted ids of activities in right part, null when pair was created from activities
+     */
+    public int[] getRightIds() {
+        return rightIds;
+    }
+
+    private Set<Activity> resolve(int[] ids) {
+        Set<Activity> activities = new LinkedHashSet<>();
+        for (int id : ids) {
+            activities.add(dictionary.activity(id));
+        }
+
+        return activities;
+    }
+
+    public int size() {
+        return leftIds != null ? leftIds.length + rightIds.length : left.size() + right.size();
+    }
+
+    /**
+     * Hash code is the same as for sets of activities, so pairs stored as ids and as sets can be compared
+     *
+     * @return Hash code of the pair
+     */
+    @Override
+    public int hashCode() {
+        if (leftIds != null) {
+            return 31 * hashCode(leftIds) + hashCode(rightIds);
+        }
+
+        return 31 * left.hashCode() + right.hashCode();
+    }
+
+    private int hashCode(int[] ids) {
+        int hash = 0;
+        for (int id : ids) {
+            hash += dictionary.activity(id).hashCode();
+        }
+
+        return hash;
+    }
+
     @Override
     public boolean equals(Object obj) {
-        if (obj.getClass() != this.getClass()) return false;
+        if (this == obj) return true;
+        if (!(obj instanceof EntryPair)) return false;
 
         EntryPair struct = ((EntryPair) obj);
+        if (leftIds != null && struct.leftIds != null && dictionary == struct.dictionary) {
+            return Arrays.equals(struct.leftIds, leftIds) && Arrays.equals(struct.rightIds, rightIds);
+        }
+
         return struct.getLeft().equals(this.getLeft())
                 && struct.getRight().equals(this.getRight());
     }
@@ -45,26 +126,29 @@ public class EntryPair {
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("({");
+        appendNames(builder, leftIds, left);
+        builder.append("}, {");
+        appendNames(builder, rightIds, right);
+        builder.append("})");
 
-        Iterator<Activity> iterator = this.getLeft().iterator();
-        while (iterator.hasNext()) {
-            builder.append(iterator.next().activityName());
-            if (iterator.hasNext()) {
-                builder.append(", ");
+        return builder.toString();
+    }
+
+    private void appendNames(StringBuilder builder, int[] ids, Set<Activity> activities) {
+        if (ids != null) {
+            for (int index = 0; index < ids.length; index++) {
+                if (index > 0) builder.append(", ");
+                builder.append(dictionary.name(ids[index]));
             }
+            return;
         }
 
-        builder.append("}, {");
-
-        iterator = this.getRight().iterator();
+        Iterator<Activity> iterator = activities.iterator();
         while (iterator.hasNext()) {
             builder.append(iterator.next().activityName());
             if (iterator.hasNext()) {
                 builder.append(", ");
             }
         }
-
-        builder.append("})");
-        return builder.toString();
     }
 }
@@ -0,0 +1,162 @@
+package structures;
+
+import static structures.ActivityRelation.RelationType.*;
+
+/**
+ * Direct successions between activities indexed by activity id.
+ * Only observed successions are stored, `CHOICE(#)` is the implicit relation of all other pairs.
+ * Length-two loops (`a b a` in a trace) are stored next to successions, so two activities of a short loop
+ * are in causality both ways instead of parallel (like in the alpha+ algorithm).
+ * Length-one loops are successions of the activity with itself.
+ */
+public interface Footprint {
+    /**
+     * Alphabets bigger than this are stored sparse, dense rows would grow with alphabet squared
+     */
+    int SPARSE_THRESHOLD = 2048;
+
+    /**
+     * Create footprint representation which fits the alphabet
+     *
+     * @param size Number of activities
+     * @return Dense footprint for small alphabets, sparse otherwise
+     */
+    static Footprint forAlphabet(int size) {
+        return size > SPARSE_THRESHOLD ? new SparseFootprint(size) : new FootprintMatrix(size);
+    }
+
+    int size();
+
+    /**
+     * Grow the footprint when new activities appear
+     *
+     * @param size Expected number of activities
+     */
+    void ensureSize(int size);
+
+    /**
+     * Store direct succession predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when succession was not known before, false otherwise
+     */
+    boolean addSuccession(int predecessor, int successor);
+
+    /**
+     * Forget direct succession predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when succession was known before, false otherwise
+     */
+    boolean removeSuccession(int predecessor, int successor);
+
+    /**
+     * Check direct succession predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when predecessor > successor, false otherwise
+     */
+    boolean follows(int predecessor, int successor);
+
+    /**
+     * Find next activity which directly follows predecessor
+     *
+     * @param predecessor   Id of activity which precedes
+     * @param fromSuccessor Id of the first successor to check
+     * @return Id of the next successor or -1 when there is no more successors
+     */
+    int nextSuccessor(int predecessor, int fromSuccessor);
+
+    /**
+     * Find next activity which is directly followed by successor
+     *
+     * @param successor       Id of activity being preceded
+     * @param fromPredecessor Id of the first predecessor to check
+     * @return Id of the next predecessor or -1 when there is no more predecessors
+     */
+    int nextPredecessor(int successor, int fromPredecessor);
+
+    /**
+     * Store length-two loop - trace with first, second, first in a row.
+     * Loops are symmetric, one of `a b a` or `b a b` is enough to mark both activities as a loop.
+     *
+     * @param first  Id of activity which starts and ends the pattern
+     * @param second Id of activity in the middle of the pattern
+     * @return True when loop was not known before, false otherwise
+     */
+    boolean addShortLoop(int first, int second);
+
+    /**
+     * Forget length-two loop between two activities
+     *
+     * @param first  Id of the first activity
+     * @param second Id of the second activity
+     * @return True when loop was known before, false otherwise
+     */
+    boolean removeShortLoop(int first, int second);
+
+    /**
+     * @param first  Id of the first activity
+     * @param second Id of the second activity
+     * @return True when the activities form length-two loop
+     */
+    boolean isShortLoop(int first, int second);
+
+    /**
+     * Find next activity which forms length-two loop with the activity
+     *
+     * @param activity     Id of the activity
+     * @param fromActivity Id of the first activity to check
+     * @return Id of the next activity or -1 when there is no more loops
+     */
+    int nextShortLoop(int activity, int fromActivity);
+
+    /**
+     * @param activity Id of the activity
+     * @return True when activity directly follows itself (length-one loop)
+     */
+    default boolean isSelfLoop(int activity) {
+        return follows(activity, activity);
+    }
+
+    default boolean isCausality(int predecessor, int successor) {
+        return follows(predecessor, successor) && (!follows(successor, predecessor) || isShortLoop(predecessor, successor));
+    }
+
+    default boolean isParallel(int predecessor, int successor) {
+        return follows(predecessor, successor) && follows(successor, predecessor) && !isShortLoop(predecessor, successor);
+    }
+
+    default boolean isChoice(int predecessor, int successor) {
+        return !follows(predecessor, successor) && !follows(successor, predecessor);
+    }
+
+    /**
+     * Decide which relation assign to pair of activities.
+     * <b>Causality</b>: a > b and (not b > a or a, b form length-two loop)
+     * <b>Reversed Causality</b>: b > a and not a > b
+     * <b>Parallel</b>: a > b and b > a, without length-two loop
+     * <b>Choice</b>: not a > b and not b > a
+     *
+     * @param predecessor Id of activity a
+     * @param successor   Id of activity b
+     * @return Relation type
+     */
+    default ActivityRelation.RelationType relation(int predecessor, int successor) {
+        boolean AB = follows(predecessor, successor);
+        boolean BA = follows(successor, predecessor);
+
+        if (AB && (!BA || isShortLoop(predecessor, successor))) {
+            return CAUSALITY;
+        } else if (!AB && BA) {
+            return REVERSED_CAUSALITY;
+        } else if (AB && BA) {
+            return PARALLEL;
+        } else {
+            return CHOICE;
+        }
+    }
+}
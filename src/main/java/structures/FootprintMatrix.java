@@ -0,0 +1,217 @@
+package structures;
+
+import java.util.Arrays;
+
+import static structures.ActivityRelation.RelationType.*;
+
+public class FootprintMatrix implements Footprint {
+    private int size;
+    private long[][] successors;
+    private long[][] predecessors;
+    private long[][] shortLoops;
+
+    /**
+     * Dense footprint of the log stored as bit rows indexed by activity id.
+     * Row `successors[a]` has bit b set when a > b, row `predecessors[a]` has bit b set when b > a,
+     * row `shortLoops[a]` has bit b set when a and b form length-two loop.
+     * With all rows available each relation between two activities is answered in O(1).
+     *
+     * @param size Number of activities (ids from 0 to size - 1)
+     */
+    public FootprintMatrix(int size) {
+        this.size = size;
+        int words = Math.max(1, (size + 63) >>> 6);
+        this.successors = new long[size][words];
+        this.predecessors = new long[size][words];
+        this.shortLoops = new long[size][words];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grow the matrix when new activities appear, rows are reallocated only when capacity is exceeded
+     *
+     * @param size Expected number of activities
+     */
+    @Override
+    public void ensureSize(int size) {
+        if (size <= this.size) return;
+
+        if (size > successors.length) {
+            int capacity = Math.max(size, successors.length * 2);
+            int capacityWords = Math.max(1, (capacity + 63) >>> 6);
+
+            successors = resize(successors, capacity, capacityWords);
+            predecessors = resize(predecessors, capacity, capacityWords);
+            shortLoops = resize(shortLoops, capacity, capacityWords);
+        }
+
+        this.size = size;
+    }
+
+    private long[][] resize(long[][] rows, int capacity, int capacityWords) {
+        long[][] resized = new long[capacity][];
+        for (int row = 0; row < capacity; row++) {
+            resized[row] = row < rows.length ? Arrays.copyOf(rows[row], capacityWords) : new long[capacityWords];
+        }
+
+        return resized;
+    }
+
+    /**
+     * Store direct succession predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when succession was not known before, false otherwise
+     */
+    @Override
+    public boolean addSuccession(int predecessor, int successor) {
+        long mask = 1L << successor;
+        long[] row = successors[predecessor];
+        if ((row[successor >>> 6] & mask) != 0) return false;
+
+        row[successor >>> 6] |= mask;
+        predecessors[successor][predecessor >>> 6] |= 1L << predecessor;
+        return true;
+    }
+
+    @Override
+    public boolean removeSuccession(int predecessor, int successor) {
+        long mask = 1L << successor;
+        long[] row = successors[predecessor];
+        if ((row[successor >>> 6] & mask) == 0) return false;
+
+        row[successor >>> 6] &= ~mask;
+        predecessors[successor][predecessor >>> 6] &= ~(1L << predecessor);
+        return true;
+    }
+
+    @Override
+    public boolean addShortLoop(int first, int second) {
+        if (first == second || isShortLoop(first, second)) return false;
+
+        shortLoops[first][second >>> 6] |= 1L << second;
+        shortLoops[second][first >>> 6] |= 1L << first;
+        return true;
+    }
+
+    @Override
+    public boolean removeShortLoop(int first, int second) {
+        if (!isShortLoop(first, second)) return false;
+
+        shortLoops[first][second >>> 6] &= ~(1L << second);
+        shortLoops[second][first >>> 6] &= ~(1L << first);
+        return true;
+    }
+
+    @Override
+    public boolean isShortLoop(int first, int second) {
+        return (shortLoops[first][second >>> 6] & (1L << second)) != 0;
+    }
+
+    @Override
+    public int nextShortLoop(int activity, int fromActivity) {
+        return next(shortLoops[activity], fromActivity);
+    }
+
+    /**
+     * Check direct succession predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when predecessor > successor, false otherwise
+     */
+    @Override
+    public boolean follows(int predecessor, int successor) {
+        return (successors[predecessor][successor >>> 6] & (1L << successor)) != 0;
+    }
+
+    /**
+     * Find next activity which directly follows predecessor
+     *
+     * @param predecessor   Id of activity which precedes
+     * @param fromSuccessor Id of the first successor to check
+     * @return Id of the next successor or -1 when there is no more successors
+     */
+    @Override
+    public int nextSuccessor(int predecessor, int fromSuccessor) {
+        return next(successors[predecessor], fromSuccessor);
+    }
+
+    @Override
+    public int nextPredecessor(int successor, int fromPredecessor) {
+        return next(predecessors[successor], fromPredecessor);
+    }
+
+    private int next(long[] row, int from) {
+        int word = from >>> 6;
+        if (from >= size) return -1;
+
+        long bits = row[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int activity = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return activity < size ? activity : -1;
+            }
+            if (++word >= row.length) return -1;
+            bits = row[word];
+        }
+    }
+
+    /**
+     * Check reversed succession, so successor > predecessor
+     *
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when successor > predecessor, false otherwise
+     */
+    private boolean precedes(int predecessor, int successor) {
+        return (predecessors[predecessor][successor >>> 6] & (1L << successor)) != 0;
+    }
+
+    @Override
+    public boolean isCausality(int predecessor, int successor) {
+        return follows(predecessor, successor) && (!precedes(predecessor, successor) || isShortLoop(predecessor, successor));
+    }
+
+    @Override
+    public boolean isParallel(int predecessor, int successor) {
+        return follows(predecessor, successor) && precedes(predecessor, successor) && !isShortLoop(predecessor, successor);
+    }
+
+    @Override
+    public boolean isChoice(int predecessor, int successor) {
+        return !follows(predecessor, successor) && !precedes(predecessor, successor);
+    }
+
+    /**
+     * Decide which relation assign to pair of activities.
+     * <b>Causality</b>: a > b and (not b > a or a, b form length-two loop)
+     * <b>Reversed Causality</b>: b > a and not a > b
+     * <b>Parallel</b>: a > b and b > a, without length-two loop
+     * <b>Choice</b>: not a > b and not b > a
+     *
+     * @param predecessor Id of activity a
+     * @param successor   Id of activity b
+     * @return Relation type
+     */
+    @Override
+    public ActivityRelation.RelationType relation(int predecessor, int successor) {
+        boolean AB = follows(predecessor, successor);
+        boolean BA = precedes(predecessor, successor);
+
+        if (AB && (!BA || isShortLoop(predecessor, successor))) {
+            return CAUSALITY;
+        } else if (!AB && BA) {
+            return REVERSED_CAUSALITY;
+        } else if (AB && BA) {
+            return PARALLEL;
+        } else {
+            return CHOICE;
+        }
+    }
+}
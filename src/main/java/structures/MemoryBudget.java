@@ -0,0 +1,50 @@
+package structures;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MemoryBudget {
+    private final long limit;
+    private final AtomicLong used = new AtomicLong();
+
+    /**
+     * Number of bytes which may be kept in direct buffers, shared by arenas which may be filled concurrently,
+     * for example by partial footprints of parallel reader or by jobs of a batch.
+     *
+     * @param limit Maximum number of bytes, 0 spills everything to files
+     */
+    public MemoryBudget(long limit) {
+        this.limit = Math.max(0, limit);
+    }
+
+    /**
+     * @param bytes Number of bytes needed
+     * @return True when bytes were reserved, false when the budget is used up
+     */
+    public boolean tryReserve(long bytes) {
+        long current;
+        do {
+            current = used.get();
+            if (current + bytes > limit) return false;
+        } while (!used.compareAndSet(current, current + bytes));
+
+        return true;
+    }
+
+    /**
+     * @param bytes Number of previously reserved bytes which are not used anymore
+     */
+    public void release(long bytes) {
+        used.addAndGet(-bytes);
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Number of reserved bytes
+     */
+    public long getUsed() {
+        return used.get();
+    }
+}
@@ -0,0 +1,231 @@
+package structures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OffHeapArena {
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int DEFAULT_CHUNK_BITS = 24;
+    private static final int FIRST_CHUNK_SIZE = 4096;
+
+    private final int chunkBits;
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final Resources resources;
+    private final Cleaner.Cleanable cleanable;
+    private boolean firstChunkDirect;
+    private long size = 0;
+
+    /**
+     * Append-only memory outside of the Java heap, addressed by long offsets.
+     * Memory is allocated in chunks of direct buffers until the budget is used up,
+     * next chunks are mapped from a temporary file, so the operating system may move them to disk.
+     * The heap keeps only one buffer object per chunk, no matter how much data is stored.
+     * The first chunk starts small and grows, so small arenas do not reserve whole chunk.
+     *
+     * @param memoryBudget Maximum number of bytes in direct buffers, 0 spills everything to the file
+     */
+    public OffHeapArena(long memoryBudget) {
+        this(new MemoryBudget(memoryBudget));
+    }
+
+    /**
+     * @param memoryBudget Budget shared with other arenas, bytes are returned when the arena is closed
+     */
+    public OffHeapArena(MemoryBudget memoryBudget) {
+        this(memoryBudget, DEFAULT_CHUNK_BITS);
+    }
+
+    /**
+     * @param memoryBudget Budget shared with other arenas
+     * @param chunkBits    Binary logarithm of the chunk size
+     */
+    OffHeapArena(MemoryBudget memoryBudget, int chunkBits) {
+        this.chunkBits = chunkBits;
+        this.chunkSize = 1 << chunkBits;
+        this.resources = new Resources(memoryBudget);
+        this.cleanable = CLEANER.register(this, resources);
+    }
+
+    /**
+     * Reserve zeroed memory, values stored later should be aligned to their size, so none crosses a chunk
+     *
+     * @param bytes Number of bytes
+     * @return Address of the first byte, aligned to 8 bytes
+     */
+    public long allocate(long bytes) {
+        long address = size;
+        long end = address + ((bytes + 7) & ~7L);
+
+        ensureCapacity(end);
+        size = end;
+        return address;
+    }
+
+    private void ensureCapacity(long capacity) {
+        if (chunks.size() <= 1 && capacity <= chunkSize) {
+            int current = chunks.isEmpty() ? 0 : chunks.get(0).capacity();
+            if (capacity <= current) return;
+
+            // Grow the first chunk by copying, small arenas stay small
+            int grown = Math.max(Math.min(FIRST_CHUNK_SIZE, chunkSize), current);
+            while (grown < capacity) grown *= 2;
+
+            if (current > 0 && firstChunkDirect) {
+                resources.release(current);
+            }
+            long directBefore = resources.directBytes;
+            ByteBuffer chunk = newChunk(grown);
+            firstChunkDirect = resources.directBytes != directBefore;
+
+            if (current > 0) {
+                ByteBuffer previous = chunks.get(0).duplicate();
+                previous.clear();
+                chunk.put(previous).clear();
+                chunks.set(0, chunk);
+            } else {
+                chunks.add(chunk);
+            }
+            return;
+        }
+
+        if (chunks.size() == 1 && chunks.get(0).capacity() < chunkSize) {
+            ensureCapacity(chunkSize);
+        }
+        while ((long) chunks.size() << chunkBits < capacity) {
+            chunks.add(newChunk(chunkSize));
+        }
+    }
+
+    private ByteBuffer newChunk(int capacity) {
+        if (resources.reserve(capacity)) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+
+        try {
+            if (resources.spillFile == null) {
+                resources.spillFile = new SpillFile(Files.createTempFile("log-miner", ".variants"));
+            }
+            return resources.spillFile.map(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Variants can not be spilled to a temporary file", e);
+        }
+    }
+
+    public int getInt(long address) {
+        return chunks.get((int) (address >>> chunkBits)).getInt((int) (address & (chunkSize - 1)));
+    }
+
+    public void putInt(long address, int value) {
+        chunks.get((int) (address >>> chunkBits)).putInt((int) (address & (chunkSize - 1)), value);
+    }
+
+    public long getLong(long address) {
+        return chunks.get((int) (address >>> chunkBits)).getLong((int) (address & (chunkSize - 1)));
+    }
+
+    public void putLong(long address, long value) {
+        chunks.get((int) (address >>> chunkBits)).putLong((int) (address & (chunkSize - 1)), value);
+    }
+
+    /**
+     * @return Number of allocated bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Number of bytes in direct buffers
+     */
+    public long directBytes() {
+        return resources.directBytes;
+    }
+
+    /**
+     * @return True when part of the arena lives in the temporary file
+     */
+    public boolean isSpilled() {
+        return resources.spillFile != null;
+    }
+
+    /**
+     * Drop all memory, return it to the budget and delete the temporary file, the arena can not be used anymore
+     */
+    public void close() {
+        chunks.clear();
+        size = 0;
+        cleanable.clean();
+    }
+
+    /**
+     * Reserved bytes and temporary file, released when the arena is closed or garbage collected
+     */
+    private static class Resources implements Runnable {
+        private final MemoryBudget budget;
+        private long directBytes = 0;
+        private SpillFile spillFile;
+
+        private Resources(MemoryBudget budget) {
+            this.budget = budget;
+        }
+
+        private boolean reserve(long bytes) {
+            if (!budget.tryReserve(bytes)) return false;
+
+            directBytes += bytes;
+            return true;
+        }
+
+        private void release(long bytes) {
+            budget.release(bytes);
+            directBytes -= bytes;
+        }
+
+        @Override
+        public void run() {
+            release(directBytes);
+            if (spillFile != null) {
+                spillFile.close();
+            }
+        }
+    }
+
+    /**
+     * Temporary file closed and deleted with the arena
+     */
+    private static class SpillFile {
+        private final Path path;
+        private final FileChannel channel;
+        private long length = 0;
+
+        private SpillFile(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        private ByteBuffer map(int capacity) throws IOException {
+            ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE, length, capacity).order(ByteOrder.nativeOrder());
+            length += capacity;
+            return chunk;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Temporary directory is cleaned by the system
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package structures;
+
+import java.util.Arrays;
+
+public class SparseFootprint implements Footprint {
+    private static final int[] EMPTY_ROW = new int[0];
+
+    private int size;
+    private int[][] successors;
+    private int[] successorCounts;
+    private int[][] predecessors;
+    private int[] predecessorCounts;
+    private int[][] shortLoops;
+    private int[] shortLoopCounts;
+
+    /**
+     * Sparse footprint for big alphabets.
+     * Each row keeps only observed successions as sorted array of activity ids,
+     * so memory grows with number of successions instead of alphabet squared.
+     * Lookups use binary search, neighbours are iterated in order of ids.
+     *
+     * @param size Number of activities (ids from 0 to size - 1)
+     */
+    public SparseFootprint(int size) {
+        this.size = 0;
+        this.successors = new int[0][];
+        this.successorCounts = new int[0];
+        this.predecessors = new int[0][];
+        this.predecessorCounts = new int[0];
+        this.shortLoops = new int[0][];
+        this.shortLoopCounts = new int[0];
+        ensureSize(size);
+    }
+
+    /**
+     * Copy of other footprint, for example dense footprint which outgrew its alphabet
+     *
+     * @param footprint Source footprint
+     * @return Sparse footprint with the same successions and loops
+     */
+    public static SparseFootprint copyOf(Footprint footprint) {
+        SparseFootprint copy = new SparseFootprint(footprint.size());
+
+        for (int predecessor = 0; predecessor < footprint.size(); predecessor++) {
+            for (int successor = footprint.nextSuccessor(predecessor, 0); successor >= 0;
+                 successor = footprint.nextSuccessor(predecessor, successor + 1)) {
+                copy.addSuccession(predecessor, successor);
+            }
+            for (int other = footprint.nextShortLoop(predecessor, predecessor + 1); other >= 0;
+                 other = footprint.nextShortLoop(predecessor, other + 1)) {
+                copy.addShortLoop(predecessor, other);
+            }
+        }
+
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void ensureSize(int size) {
+        if (size <= this.size) return;
+
+        if (size > successors.length) {
+            int capacity = Math.max(size, successors.length * 2);
+            int previousCapacity = successors.length;
+
+            successors = Arrays.copyOf(successors, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+            successorCounts = Arrays.copyOf(successorCounts, capacity);
+            predecessorCounts = Arrays.copyOf(predecessorCounts, capacity);
+            shortLoops = Arrays.copyOf(shortLoops, capacity);
+            shortLoopCounts = Arrays.copyOf(shortLoopCounts, capacity);
+            Arrays.fill(successors, previousCapacity, capacity, EMPTY_ROW);
+            Arrays.fill(predecessors, previousCapacity, capacity, EMPTY_ROW);
+            Arrays.fill(shortLoops, previousCapacity, capacity, EMPTY_ROW);
+        }
+
+        this.size = size;
+    }
+
+    @Override
+    public boolean addSuccession(int predecessor, int successor) {
+        int position = Arrays.binarySearch(successors[predecessor], 0, successorCounts[predecessor], successor);
+        if (position >= 0) return false;
+
+        successors[predecessor] = insert(successors[predecessor], successorCounts[predecessor]++, -position - 1, successor);
+        int reversedPosition = -Arrays.binarySearch(predecessors[successor], 0, predecessorCounts[successor], predecessor) - 1;
+        predecessors[successor] = insert(predecessors[successor], predecessorCounts[successor]++, reversedPosition, predecessor);
+        return true;
+    }
+
+    @Override
+    public boolean removeSuccession(int predecessor, int successor) {
+        int position = Arrays.binarySearch(successors[predecessor], 0, successorCounts[predecessor], successor);
+        if (position < 0) return false;
+
+        remove(successors[predecessor], successorCounts[predecessor]--, position);
+        int reversedPosition = Arrays.binarySearch(predecessors[successor], 0, predecessorCounts[successor], predecessor);
+        remove(predecessors[successor], predecessorCounts[successor]--, reversedPosition);
+        return true;
+    }
+
+    @Override
+    public boolean addShortLoop(int first, int second) {
+        if (first == second) return false;
+
+        int position = Arrays.binarySearch(shortLoops[first], 0, shortLoopCounts[first], second);
+        if (position >= 0) return false;
+
+        shortLoops[first] = insert(shortLoops[first], shortLoopCounts[first]++, -position - 1, second);
+        int reversedPosition = -Arrays.binarySearch(shortLoops[second], 0, shortLoopCounts[second], first) - 1;
+        shortLoops[second] = insert(shortLoops[second], shortLoopCounts[second]++, reversedPosition, first);
+        return true;
+    }
+
+    @Override
+    public boolean removeShortLoop(int first, int second) {
+        int position = Arrays.binarySearch(shortLoops[first], 0, shortLoopCounts[first], second);
+        if (position < 0) return false;
+
+        remove(shortLoops[first], shortLoopCounts[first]--, position);
+        int reversedPosition = Arrays.binarySearch(shortLoops[second], 0, shortLoopCounts[second], first);
+        remove(shortLoops[second], shortLoopCounts[second]--, reversedPosition);
+        return true;
+    }
+
+    @Override
+    public boolean isShortLoop(int first, int second) {
+        return Arrays.binarySearch(shortLoops[first], 0, shortLoopCounts[first], second) >= 0;
+    }
+
+    @Override
+    public int nextShortLoop(int activity, int fromActivity) {
+        return next(shortLoops[activity], shortLoopCounts[activity], fromActivity);
+    }
+
+    private static void remove(int[] row, int count, int position) {
+        System.arraycopy(row, position + 1, row, position, count - position - 1);
+    }
+
+    private static int[] insert(int[] row, int count, int position, int activity) {
+        if (count == row.length) {
+            row = Arrays.copyOf(row, Math.max(4, count * 2));
+        }
+
+        System.arraycopy(row, position, row, position + 1, count - position);
+        row[position] = activity;
+        return row;
+    }
+
+    @Override
+    public boolean follows(int predecessor, int successor) {
+        return Arrays.binarySearch(successors[predecessor], 0, successorCounts[predecessor], successor) >= 0;
+    }
+
+    @Override
+    public int nextSuccessor(int predecessor, int fromSuccessor) {
+        return next(successors[predecessor], successorCounts[predecessor], fromSuccessor);
+    }
+
+    @Override
+    public int nextPredecessor(int successor, int fromPredecessor) {
+        return next(predecessors[successor], predecessorCounts[successor], fromPredecessor);
+    }
+
+    private static int next(int[] row, int count, int from) {
+        int position = Arrays.binarySearch(row, 0, count, from);
+        if (position < 0) position = -position - 1;
+
+        return position < count ? row[position] : -1;
+    }
+
+    /**
+     * @return Number of stored direct successions
+     */
+    public long successionsCount() {
+        long count = 0;
+        for (int predecessor = 0; predecessor < size; predecessor++) {
+            count += successorCounts[predecessor];
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,175 @@
+package structures;
+
+import java.util.Arrays;
+
+public class SuccessionCounts {
+    private static final long EMPTY = -1L;
+    private static final int DENSE_LIMIT = 1024;
+    private static final long[] EMPTY_ROW = new long[0];
+
+    private long[][] dense = new long[0][];
+    private long[] keys;
+    private long[] counts;
+    private int size = 0;
+
+    /**
+     * Number of occurrences of each direct succession `|a > b|`.
+     * While activity ids are small, counts are kept in dense rows indexed by ids (allocated when a row is used),
+     * so counting is a single array increment. With bigger ids all counts move to an open-addressing table
+     * keyed like {@link SuccessionSet}, memory then grows with observed successions, not with alphabet squared.
+     * Counting never allocates per succession.
+     */
+    public SuccessionCounts() {
+    }
+
+    /**
+     * Increase number of occurrences of predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes, not negative
+     * @param successor   Id of activity being preceded, not negative
+     * @param count       Number of new occurrences
+     * @return Number of occurrences after the increase
+     */
+    public long add(int predecessor, int successor, long count) {
+        if (dense != null) {
+            if (predecessor < dense.length && successor < dense[predecessor].length && dense[predecessor][successor] != 0) {
+                return dense[predecessor][successor] += count;
+            }
+            if (predecessor < DENSE_LIMIT && successor < DENSE_LIMIT) {
+                long[] row = denseRow(predecessor, successor);
+                if (row[successor] == 0) size++;
+                return row[successor] += count;
+            }
+            toTable();
+        }
+
+        long key = SuccessionSet.key(predecessor, successor);
+        int slot = findSlot(keys, key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                rehash();
+                slot = findSlot(keys, key);
+            }
+        }
+
+        return counts[slot] += count;
+    }
+
+    private long[] denseRow(int predecessor, int successor) {
+        if (predecessor >= dense.length) {
+            int previousLength = dense.length;
+            dense = Arrays.copyOf(dense, Math.min(DENSE_LIMIT, Math.max(predecessor + 1, dense.length * 2)));
+            Arrays.fill(dense, previousLength, dense.length, EMPTY_ROW);
+        }
+        if (successor >= dense[predecessor].length) {
+            dense[predecessor] = Arrays.copyOf(dense[predecessor], Math.min(DENSE_LIMIT, Math.max(successor + 1, Math.max(16, dense[predecessor].length * 2))));
+        }
+
+        return dense[predecessor];
+    }
+
+    /**
+     * Move dense rows to the table, alphabet became too big for rows
+     */
+    private void toTable() {
+        long[][] rows = dense;
+        int capacity = 16;
+        while (capacity < size * 2 + 2) capacity *= 2;
+
+        dense = null;
+        keys = newKeys(capacity);
+        counts = new long[capacity];
+        for (int predecessor = 0; predecessor < rows.length; predecessor++) {
+            for (int successor = 0; successor < rows[predecessor].length; successor++) {
+                if (rows[predecessor][successor] == 0) continue;
+
+                int slot = findSlot(keys, SuccessionSet.key(predecessor, successor));
+                keys[slot] = SuccessionSet.key(predecessor, successor);
+                counts[slot] = rows[predecessor][successor];
+            }
+        }
+    }
+
+    /**
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return Number of occurrences of predecessor > successor, 0 when never observed
+     */
+    public long count(int predecessor, int successor) {
+        if (predecessor < 0 || successor < 0) return 0;
+        if (dense != null) {
+            return predecessor < dense.length && successor < dense[predecessor].length ? dense[predecessor][successor] : 0;
+        }
+
+        long key = SuccessionSet.key(predecessor, successor);
+        int slot = findSlot(keys, key);
+        return keys[slot] == key ? counts[slot] : 0;
+    }
+
+    /**
+     * @return Number of distinct successions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Call consumer with each succession and its count, in no particular order
+     *
+     * @param consumer Receiver of successions
+     */
+    public void forEach(CountConsumer consumer) {
+        if (dense != null) {
+            for (int predecessor = 0; predecessor < dense.length; predecessor++) {
+                for (int successor = 0; successor < dense[predecessor].length; successor++) {
+                    if (dense[predecessor][successor] != 0) consumer.accept(predecessor, successor, dense[predecessor][successor]);
+                }
+            }
+            return;
+        }
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(SuccessionSet.predecessor(keys[slot]), SuccessionSet.successor(keys[slot]), counts[slot]);
+            }
+        }
+    }
+
+    private static int findSlot(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = SuccessionSet.hash(key) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void rehash() {
+        long[] rehashedKeys = newKeys(keys.length * 2);
+        long[] rehashedCounts = new long[rehashedKeys.length];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == EMPTY) continue;
+
+            int rehashedSlot = findSlot(rehashedKeys, keys[slot]);
+            rehashedKeys[rehashedSlot] = keys[slot];
+            rehashedCounts[rehashedSlot] = counts[slot];
+        }
+
+        keys = rehashedKeys;
+        counts = rehashedCounts;
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        return keys;
+    }
+
+    public interface CountConsumer {
+        void accept(int predecessor, int successor, long count);
+    }
+}
@@ -0,0 +1,163 @@
+package structures;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public class SuccessionSet {
+    private static final long EMPTY = -1L;
+
+    private long[] keys = newKeys(16);
+    private int size = 0;
+
+    /**
+     * Set of direct successions between activity ids without wrapper objects.
+     * Each succession is packed into a single long (predecessor in high bits, successor in low bits),
+     * so (a, b) and (b, a) are different keys. Keys are stored in an open-addressing table with linear probing,
+     * lookups do not allocate.
+     */
+    public SuccessionSet() {
+    }
+
+    /**
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return Packed key of the succession
+     */
+    public static long key(int predecessor, int successor) {
+        return (long) predecessor << 32 | (successor & 0xFFFFFFFFL);
+    }
+
+    public static int predecessor(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int successor(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Store direct succession predecessor > successor
+     *
+     * @param predecessor Id of activity which precedes, not negative
+     * @param successor   Id of activity being preceded, not negative
+     * @return True when succession was not known before, false otherwise
+     */
+    public boolean add(int predecessor, int successor) {
+        long key = key(predecessor, successor);
+        int slot = findSlot(keys, key);
+        if (keys[slot] == key) return false;
+
+        keys[slot] = key;
+        if (++size * 2 > keys.length) rehash();
+        return true;
+    }
+
+    /**
+     * @param predecessor Id of activity which precedes
+     * @param successor   Id of activity being preceded
+     * @return True when predecessor > successor was stored
+     */
+    public boolean contains(int predecessor, int successor) {
+        if (predecessor < 0 || successor < 0) return false;
+
+        long key = key(predecessor, successor);
+        return keys[findSlot(keys, key)] == key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int findSlot(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void rehash() {
+        long[] rehashed = newKeys(keys.length * 2);
+        for (long key : keys) {
+            if (key != EMPTY) rehashed[findSlot(rehashed, key)] = key;
+        }
+
+        keys = rehashed;
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        return keys;
+    }
+
+    /**
+     * Finalizer of 64-bit MurmurHash3, all bits of both ids influence the slot
+     */
+    static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+
+        return (int) key;
+    }
+
+    /**
+     * Read-only view with activities, wrapper objects are created only while iterating
+     *
+     * @param dictionary Dictionary which assigned the ids
+     * @return Set of direct successions backed by this set
+     */
+    public Set<ActivityDirectSuccession> asActivitySet(ActivityDictionary dictionary) {
+        return new AbstractSet<ActivityDirectSuccession>() {
+            @Override
+            public boolean contains(Object object) {
+                if (!(object instanceof ActivityDirectSuccession)) return false;
+
+                ActivityDirectSuccession succession = (ActivityDirectSuccession) object;
+                return SuccessionSet.this.contains(dictionary.idOf(succession.getPredecessor()), dictionary.idOf(succession.getSuccessor()));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<ActivityDirectSuccession> iterator() {
+                return new Iterator<ActivityDirectSuccession>() {
+                    private final long[] snapshot = keys;
+                    private int slot = nextSlot(0);
+
+                    private int nextSlot(int from) {
+                        while (from < snapshot.length && snapshot[from] == EMPTY) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < snapshot.length;
+                    }
+
+                    @Override
+                    public ActivityDirectSuccession next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+
+                        long key = snapshot[slot];
+                        slot = nextSlot(slot + 1);
+                        return new ActivityDirectSuccession(dictionary.activity(predecessor(key)), dictionary.activity(successor(key)));
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,239 @@
+package structures;
+
+public class VariantTable implements AutoCloseable {
+    private static final long COUNT = 0;
+    private static final long HASH = 8;
+    private static final long LENGTH = 12;
+    private static final long TRACE = 16;
+
+    // Direct memory of the JVM is limited by the maximum heap size unless configured otherwise
+    private static volatile MemoryBudget defaultMemoryBudget = new MemoryBudget(Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 2));
+
+    private final OffHeapArena arena;
+    private long directory;
+    private int directoryCapacity = 16;
+    private long slots;
+    private int slotsCapacity = 32;
+    private int size = 0;
+    private long totalCount = 0;
+
+    /**
+     * Table of distinct traces (variants) with number of occurrences, with the default memory budget.
+     * Traces are encoded as activity ids and stored one after another outside of the Java heap,
+     * the index is an open-addressing hash table with variant numbers, also outside of the heap.
+     * Variants are numbered in order of first appearance.
+     * The default budget is shared by all tables, so partial tables of parallel workers or batch jobs
+     * together do not keep more than one budget in memory.
+     */
+    public VariantTable() {
+        this(defaultMemoryBudget);
+    }
+
+    /**
+     * @param memoryBudget Maximum number of bytes kept in memory, more variants are spilled to a temporary file
+     */
+    public VariantTable(long memoryBudget) {
+        this(new MemoryBudget(memoryBudget));
+    }
+
+    /**
+     * @param memoryBudget Budget shared with other tables, memory is returned to it when the table is closed
+     */
+    public VariantTable(MemoryBudget memoryBudget) {
+        this.arena = new OffHeapArena(memoryBudget);
+        this.directory = arena.allocate((long) directoryCapacity * Long.BYTES);
+        this.slots = arena.allocate((long) slotsCapacity * Integer.BYTES);
+    }
+
+    /**
+     * Change memory budget shared by tables created later, for example from the command line.
+     * Budget has to fit into direct memory of the JVM (`-XX:MaxDirectMemorySize`).
+     *
+     * @param memoryBudget Maximum number of bytes kept in memory by all tables together
+     */
+    public static void setDefaultMemoryBudget(long memoryBudget) {
+        defaultMemoryBudget = new MemoryBudget(memoryBudget);
+    }
+
+    /**
+     * Count single occurrence of the trace
+     *
+     * @param trace  Buffer with activity ids
+     * @param length Number of activities in the trace
+     * @return Number of the variant
+     */
+    public int add(int[] trace, int length) {
+        return add(trace, length, 1);
+    }
+
+    /**
+     * Count occurrences of the trace
+     *
+     * @param trace  Buffer with activity ids
+     * @param length Number of activities in the trace
+     * @param count  Number of occurrences
+     * @return Number of the variant
+     */
+    public int add(int[] trace, int length, long count) {
+        int hash = hash(trace, length);
+        long slot = findSlot(trace, length, hash);
+        int variant = arena.getInt(slot) - 1;
+
+        if (variant < 0) {
+            variant = register(trace, length, hash);
+            arena.putInt(slot, variant + 1);
+            if (size * 2 > slotsCapacity) rehash();
+        }
+
+        long record = record(variant);
+        arena.putLong(record + COUNT, arena.getLong(record + COUNT) + count);
+        totalCount += count;
+        return variant;
+    }
+
+    /**
+     * Find number of the variant
+     *
+     * @param trace  Buffer with activity ids
+     * @param length Number of activities in the trace
+     * @return Number of the variant or -1 when trace is unknown
+     */
+    public int find(int[] trace, int length) {
+        return arena.getInt(findSlot(trace, length, hash(trace, length))) - 1;
+    }
+
+    /**
+     * @return Address of the slot with the trace or of the empty slot where it belongs
+     */
+    private long findSlot(int[] trace, int length, int hash) {
+        int mask = slotsCapacity - 1;
+        int slot = hash & mask;
+
+        for (int stored = arena.getInt(slots + (long) slot * Integer.BYTES); stored != 0;
+             stored = arena.getInt(slots + (long) slot * Integer.BYTES)) {
+            if (isSameTrace(stored - 1, trace, length, hash)) break;
+            slot = (slot + 1) & mask;
+        }
+
+        return slots + (long) slot * Integer.BYTES;
+    }
+
+    private boolean isSameTrace(int variant, int[] trace, int length, int hash) {
+        long record = record(variant);
+        if (arena.getInt(record + HASH) != hash || arena.getInt(record + LENGTH) != length) return false;
+
+        for (int position = 0; position < length; position++) {
+            if (arena.getInt(record + TRACE + (long) position * Integer.BYTES) != trace[position]) return false;
+        }
+
+        return true;
+    }
+
+    private int register(int[] trace, int length, int hash) {
+        if (size == directoryCapacity) {
+            long grown = arena.allocate((long) directoryCapacity * 2 * Long.BYTES);
+            for (int variant = 0; variant < size; variant++) {
+                arena.putLong(grown + (long) variant * Long.BYTES, record(variant));
+            }
+            directory = grown;
+            directoryCapacity *= 2;
+        }
+
+        long record = arena.allocate(TRACE + (long) length * Integer.BYTES);
+        arena.putInt(record + HASH, hash);
+        arena.putInt(record + LENGTH, length);
+        for (int position = 0; position < length; position++) {
+            arena.putInt(record + TRACE + (long) position * Integer.BYTES, trace[position]);
+        }
+        arena.putLong(directory + (long) size * Long.BYTES, record);
+
+        return size++;
+    }
+
+    /**
+     * Build twice bigger index, the old index stays in the arena as garbage (smaller than the new one)
+     */
+    private void rehash() {
+        slotsCapacity *= 2;
+        slots = arena.allocate((long) slotsCapacity * Integer.BYTES);
+        int mask = slotsCapacity - 1;
+
+        for (int variant = 0; variant < size; variant++) {
+            int slot = arena.getInt(record(variant) + HASH) & mask;
+            while (arena.getInt(slots + (long) slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            arena.putInt(slots + (long) slot * Integer.BYTES, variant + 1);
+        }
+    }
+
+    private long record(int variant) {
+        return arena.getLong(directory + (long) variant * Long.BYTES);
+    }
+
+    private static int hash(int[] trace, int length) {
+        int hash = length;
+        for (int position = 0; position < length; position++) {
+            hash = 31 * hash + trace[position];
+        }
+
+        // Spread bits, so similar traces do not land in neighbouring slots
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return Number of distinct traces
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of all counted traces
+     */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public long count(int variant) {
+        return arena.getLong(record(variant) + COUNT);
+    }
+
+    public int length(int variant) {
+        return arena.getInt(record(variant) + LENGTH);
+    }
+
+    public int activity(int variant, int position) {
+        return arena.getInt(record(variant) + TRACE + (long) position * Integer.BYTES);
+    }
+
+    /**
+     * @param variant Number of the variant
+     * @return Copy of the trace as activity ids
+     */
+    public int[] trace(int variant) {
+        long record = record(variant);
+        int[] trace = new int[arena.getInt(record + LENGTH)];
+        for (int position = 0; position < trace.length; position++) {
+            trace[position] = arena.getInt(record + TRACE + (long) position * Integer.BYTES);
+        }
+
+        return trace;
+    }
+
+    /**
+     * @return True when part of the variants was spilled to a temporary file
+     */
+    public boolean isSpilled() {
+        return arena.isSpilled();
+    }
+
+    /**
+     * Release memory and the temporary file before the table is garbage collected
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,109 @@
+package cli;
+
+import org.junit.jupiter.api.Test;
+import parsers.Tokenizer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchMinerTest {
+    @Test
+    void directoriesGlobsAndListsAreSortedWithoutDuplicates() throws IOException {
+        Path directory = Files.createTempDirectory("log-miner");
+        try {
+            write(directory.resolve("b.log"), "ab\n");
+            write(directory.resolve("a.log"), "ab\n");
+            write(directory.resolve("c.txt"), "ab\n");
+            write(directory.resolve("tenant/d.log"), "ab\n");
+            write(directory.resolve("list.txt"), "# tenants\n\ntenant/d.log\nb.log\n");
+
+            LogFileCollector collector = new LogFileCollector();
+            collector.add(directory + "/*.log");
+            collector.add("@" + directory.resolve("list.txt"));
+            assertEquals(Arrays.asList(directory.resolve("a.log"), directory.resolve("b.log"), directory.resolve("tenant/d.log")),
+                    collector.logFiles());
+
+            LogFileCollector all = new LogFileCollector();
+            all.add(directory.toString());
+            assertEquals(5, all.logFiles().size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void resultsKeepOrderOfFilesAndReportErrors() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("log-miner");
+        try {
+            List<Path> logFiles = new ArrayList<>();
+            for (int file = 0; file < 20; file++) {
+                Path logFile = directory.resolve("tenant-" + file + ".log");
+                if (file != 7) write(logFile, file % 2 == 0 ? "abc\nacb\n" : "ab\n");
+                logFiles.add(logFile);
+            }
+
+            List<BatchMiner.Result> results = new ArrayList<>();
+            new BatchMiner(3, Tokenizer.singleCharacter()).mine(logFiles, results::add);
+
+            assertEquals(20, results.size());
+            for (int file = 0; file < 20; file++) {
+                BatchMiner.Result result = results.get(file);
+                assertEquals(logFiles.get(file), result.getLogFile());
+
+                if (file == 7) {
+                    assertNull(result.getPairs());
+                    assertTrue(result.getError().startsWith("Log file can not be read"));
+                } else {
+                    assertNull(result.getError());
+                    assertEquals(file % 2 == 0 ? 2 : 1, result.getPairs().size());
+                }
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void failureEscapingJobIsReportedForItsFile() throws InterruptedException {
+        List<Path> logFiles = List.of(Paths.get("first.log"), Paths.get("broken.log"), Paths.get("last.log"));
+        BatchMiner miner = new BatchMiner(2, Tokenizer.singleCharacter()) {
+            @Override
+            Result mine(Path logFile) {
+                if (logFile.endsWith("broken.log")) throw new OutOfMemoryError("Java heap space");
+                return new Result(logFile, List.of(), null);
+            }
+        };
+
+        List<BatchMiner.Result> results = new ArrayList<>();
+        miner.mine(logFiles, results::add);
+
+        assertEquals(3, results.size());
+        assertNull(results.get(0).getError());
+        assertEquals(logFiles.get(1), results.get(1).getLogFile());
+        assertEquals("Log file can not be mined: java.lang.OutOfMemoryError: Java heap space", results.get(1).getError());
+        assertNull(results.get(2).getError());
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
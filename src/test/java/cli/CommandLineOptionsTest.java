@@ -0,0 +1,35 @@
+package cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineOptionsTest {
+    private static final Set<String> KNOWN = Set.of("threads", "follow");
+
+    @Test
+    void optionsAndArgumentsAreSeparated() {
+        CommandLineOptions options = new CommandLineOptions(new String[]{"first.log", "--threads=4", "--follow", "second.log"}, KNOWN);
+
+        assertEquals(List.of("first.log", "second.log"), options.arguments());
+        assertEquals(4, options.getInt("threads", 1));
+        assertTrue(options.has("follow"));
+        assertEquals(7, options.getLong("follow", 7));
+    }
+
+    @Test
+    void invalidNumbersAreRejectedWithMessage() {
+        CommandLineOptions options = new CommandLineOptions(new String[]{"--threads=99999999999", "--follow=x"}, KNOWN);
+
+        IllegalArgumentException range = assertThrows(IllegalArgumentException.class, () -> options.getInt("threads", 1));
+        assertEquals("Option --threads is out of range, got 99999999999", range.getMessage());
+        assertEquals(99999999999L, options.getLong("threads", 1));
+
+        IllegalArgumentException number = assertThrows(IllegalArgumentException.class, () -> options.getInt("follow", 1));
+        assertEquals("Option --follow expects a number, got x", number.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new CommandLineOptions(new String[]{"--unknown"}, KNOWN));
+    }
+}
@@ -0,0 +1,97 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+import parsers.ActivityRelationsBuilder;
+import reader.ProcessLogReader;
+import structures.Activity;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MiningMetricsTest {
+    @Test
+    void phasesAreTimedAndReportedAsJson() {
+        MiningMetrics metrics = new MiningMetrics();
+        try (MiningMetrics.Phase phase = metrics.phase("read")) {
+            phase.setItems(3);
+        }
+        try (MiningMetrics.Phase phase = metrics.phase("read")) {
+            metrics.recordLog(3, 2, 4);
+            phase.setItems(3);
+        }
+
+        assertEquals(2L, (long) metrics.getPhaseCounts().get("read"));
+        assertTrue(metrics.getPhaseNanos().get("read") >= 0);
+
+        String json = metrics.toJson();
+        assertTrue(json.startsWith("{\"cases\":3,\"variants\":2,\"activities\":4,"));
+        assertTrue(json.contains("\"read\":{\"millis\":"));
+        assertTrue(json.endsWith("\"runs\":2}}}"));
+    }
+
+    @Test
+    void candidateGrowthIsCounted() {
+        List<List<Activity>> cases = new ProcessLogReader().readProcessLog(new Scanner("abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf\n"));
+        MiningMetrics metrics = MiningMetrics.global();
+        long generatedBefore = metrics.getCandidatesGenerated();
+        long validationsBefore = metrics.getRelationValidations();
+        long duplicatesBefore = metrics.getDuplicateCandidates();
+
+        List<?> pairs = new ActivityRelationsBuilder().findRelationsBasedOnLog(cases);
+
+        long generated = metrics.getCandidatesGenerated() - generatedBefore;
+        long validations = metrics.getRelationValidations() - validationsBefore;
+        long duplicates = metrics.getDuplicateCandidates() - duplicatesBefore;
+        assertFalse(pairs.isEmpty());
+        assertTrue(generated > 0);
+        assertEquals(generated, validations + duplicates);
+    }
+
+    @Test
+    void logSizesOfJobsAreSummed() {
+        MiningMetrics metrics = new MiningMetrics();
+        metrics.recordLog(3, 2, 4);
+        metrics.recordLog(5, 0, 1);
+
+        assertEquals(8, metrics.getCasesCount());
+        assertEquals(2, metrics.getVariantsCount());
+        assertEquals(5, metrics.getActivitiesCount());
+
+        metrics.recordLog(4, -1, 3);
+        assertEquals(-1, metrics.getVariantsCount());
+        assertTrue(metrics.toJson().startsWith("{\"cases\":12,\"variants\":null,\"activities\":8,"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCasesCount());
+    }
+
+    @Test
+    void enumeratorFeedsCandidateCounters() {
+        List<List<Activity>> cases = new ProcessLogReader().readProcessLog(new Scanner("abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf\n"));
+        MiningMetrics metrics = MiningMetrics.global();
+        long generatedBefore = metrics.getCandidatesGenerated();
+        long validationsBefore = metrics.getRelationValidations();
+        long pairsBefore = metrics.getMaximalPairs();
+
+        List<?> pairs = new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(cases);
+
+        assertFalse(pairs.isEmpty());
+        assertTrue(metrics.getCandidatesGenerated() > generatedBefore);
+        assertTrue(metrics.getRelationValidations() > validationsBefore);
+        assertTrue(metrics.getMaximalPairs() - pairsBefore >= pairs.size());
+    }
+
+    @Test
+    void globalMetricsAreRegisteredInJmx() throws Exception {
+        MiningMetrics.registerMBean();
+        MiningMetrics.registerMBean();
+
+        Object cases = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName("log-miner:type=MiningMetrics"), "CasesCount");
+        assertEquals(MiningMetrics.global().getCasesCount(), cases);
+    }
+}
@@ -6,11 +6,14 @@ import structures.Activity;
 import structures.ActivityDirectSuccession;
 import structures.ActivityRelation;
 import structures.EntryPair;
+import structures.SparseFootprint;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static structures.ActivityRelation.RelationType.*;
@@ -188,6 +191,145 @@ class ActivityRelationsBuilderTest {
         assertTrue(response.contains(new EntryPair(createSet(new String[]{"b"}), createSet(new String[]{"c", "f"}))));
     }
 
+    /**
+     * Equal pairs are reduced to a single maximum pair, contained pairs are removed
+     */
+    @Test
+    void maximumElementsWithoutDuplicates() {
+        EntryPair big = new EntryPair(createSet(new String[]{"a", "b"}), createSet(new String[]{"c"}));
+        EntryPair duplicate = new EntryPair(createSet(new String[]{"b", "a"}), createSet(new String[]{"c"}));
+        EntryPair small = new EntryPair(createSet(new String[]{"a"}), createSet(new String[]{"c"}));
+        EntryPair other = new EntryPair(createSet(new String[]{"c"}), createSet(new String[]{"a"}));
+
+        List<EntryPair> response = new ActivityRelationsBuilder().selectOnlyMaximumElements(List.of(small, big, other, duplicate));
+
+        assertEquals(List.of(big, other), response);
+    }
+
+    /**
+     * Maximum pairs enumerated on the footprint are the same as filtered from all possible pairs
+     */
+    @Test
+    void enumerateOnlyMaximumPairs() {
+        Scanner log = new Scanner("abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf");
+        List<List<Activity>> input = new ProcessLogReader().readProcessLog(log);
+
+        List<EntryPair> response = new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(input);
+
+        assertEquals(5, response.size());
+
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"a"}), createSet(new String[]{"e"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"c"}), createSet(new String[]{"d"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"e"}), createSet(new String[]{"f"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"a", "d"}), createSet(new String[]{"b"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"b"}), createSet(new String[]{"c", "f"}))));
+    }
+
+    /**
+     * Streamed footprint gives the same maximum pairs as parsed cases
+     */
+    @Test
+    void streamedLogGivesTheSameMaximumPairs() {
+        String log = "abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf";
+        List<List<Activity>> input = new ProcessLogReader().readProcessLog(new Scanner(log));
+        FootprintAccumulator streamed = new ProcessLogReader().readFootprint(new Scanner(log));
+
+        List<EntryPair> expected = new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(input);
+        List<EntryPair> response = new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(streamed);
+
+        assertEquals(new HashSet<>(expected), new HashSet<>(response));
+    }
+
+    /**
+     * Activity with self loop is not in `CHOICE(#)` with itself, so it can not be part of any pair
+     */
+    @Test
+    void selfLoopActivityIsNotPartOfMaximumPairs() {
+        Scanner log = new Scanner("abcd\nacbd\naed\naeed");
+        List<List<Activity>> input = new ProcessLogReader().readProcessLog(log);
+
+        List<EntryPair> response = new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(input);
+
+        assertEquals(4, response.size());
+
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"a"}), createSet(new String[]{"b"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"a"}), createSet(new String[]{"c"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"b"}), createSet(new String[]{"d"}))));
+        assertTrue(response.contains(new EntryPair(createSet(new String[]{"c"}), createSet(new String[]{"d"}))));
+        assertFalse(response.contains(new EntryPair(createSet(new String[]{"a"}), createSet(new String[]{"b", "e"}))));
+    }
+
+    /**
+     * Big alphabet is stored in sparse footprint, only observed successions are walked
+     */
+    @Test
+    void bigAlphabetGivesPairsOnSparseFootprint() {
+        StringBuilder log = new StringBuilder();
+        for (int activity = 0; activity < 3000; activity++) {
+            log.append("start task-").append(activity).append(" end\n");
+        }
+        ProcessLogReader reader = new ProcessLogReader();
+        reader.setTokenizer(Tokenizer.whitespace());
+        FootprintAccumulator streamed = reader.readFootprint(new Scanner(log.toString()));
+        ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
+
+        assertTrue(streamed.getFootprint() instanceof SparseFootprint);
+        assertEquals(4 * 3000, builder.generateObservedRelations(streamed).size());
+
+        List<EntryPair> response = builder.findMaximumRelationsBasedOnLog(streamed);
+        assertEquals(2, response.size());
+        assertEquals(3000, response.get(0).getRight().size());
+        assertEquals(3000, response.get(1).getLeft().size());
+    }
+
+    /**
+     * Length-two loop `a b a` is causality in both directions, not parallel (alpha+)
+     */
+    @Test
+    void shortLoopIsCausalityBothWays() {
+        Activity A = new Activity("a");
+        Activity B = new Activity("b");
+        List<List<Activity>> input = new ProcessLogReader().readProcessLog(new Scanner("abac\nac"));
+        ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
+
+        List<ActivityRelation> relations = builder.generateRelationsBetweenActivities(input);
+        assertTrue(relations.contains(new ActivityRelation(A, B, CAUSALITY)));
+        assertTrue(relations.contains(new ActivityRelation(B, A, CAUSALITY)));
+
+        FootprintAccumulator streamed = new ProcessLogReader().readFootprint(new Scanner("abac\nac"));
+        List<EntryPair> response = builder.findMaximumRelationsBasedOnLog(streamed);
+
+        assertEquals(builder.findMaximumRelationsBasedOnLog(input), response);
+        assertEquals("[({a}, {b, c}), ({b}, {a})]", response.toString());
+    }
+
+    /**
+     * Lazy stream gives the same pairs in the same order, limit stops the search early
+     */
+    @Test
+    void streamedPairsStopAtLimit() {
+        FootprintAccumulator streamed = new ProcessLogReader().readFootprint(new Scanner("abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf"));
+        ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
+        List<EntryPair> all = builder.findMaximumRelationsBasedOnLog(streamed);
+
+        try (Stream<EntryPair> pairs = builder.streamMaximumRelationsBasedOnLog(streamed)) {
+            assertEquals(all, pairs.collect(Collectors.toList()));
+        }
+        try (Stream<EntryPair> pairs = builder.streamMaximumRelationsBasedOnLog(streamed)) {
+            assertEquals(all.subList(0, 2), pairs.limit(2).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void largestPairsComeFirst() {
+        FootprintAccumulator streamed = new ProcessLogReader().readFootprint(new Scanner("abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf"));
+        List<EntryPair> response = new ActivityRelationsBuilder().findLargestRelationsBasedOnLog(streamed, 2);
+
+        assertEquals(2, response.size());
+        assertEquals(new EntryPair(createSet(new String[]{"a", "d"}), createSet(new String[]{"b"})), response.get(0));
+        assertEquals(new EntryPair(createSet(new String[]{"b"}), createSet(new String[]{"c", "f"})), response.get(1));
+    }
+
     /**
      * Private function to prepare set of activities based on list of strings (names)
      *
@@ -0,0 +1,164 @@
+package parsers;
+
+import org.junit.jupiter.api.Test;
+import reader.LogFollower;
+import reader.MappedLogReader;
+import structures.Activity;
+import structures.EntryPair;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parsers.TestLogs.accumulate;
+
+class FootprintSnapshotTest {
+    @Test
+    void snapshotKeepsFootprintAndVariants() throws IOException {
+        Path snapshotFile = Files.createTempFile("log-miner", ".snapshot");
+        try {
+            FootprintAccumulator accumulator = accumulate("abc", "acb", "abc", "d\u0105", "aba");
+            new FootprintSnapshot(accumulator, 42, 7).write(snapshotFile);
+
+            FootprintSnapshot snapshot = FootprintSnapshot.read(snapshotFile);
+            FootprintAccumulator loaded = snapshot.getAccumulator();
+
+            assertEquals(42, snapshot.getOffset());
+            assertEquals(5, loaded.getCasesCount());
+            assertEquals(accumulator.getDictionary().size(), loaded.getDictionary().size());
+            assertEquals("\u0105", loaded.getDictionary().name(4));
+            for (int predecessor = 0; predecessor < 5; predecessor++) {
+                for (int successor = 0; successor < 5; successor++) {
+                    assertEquals(accumulator.getFootprint().follows(predecessor, successor),
+                            loaded.getFootprint().follows(predecessor, successor));
+                }
+            }
+            assertTrue(loaded.getFootprint().isShortLoop(0, 1));
+            assertFalse(loaded.getFootprint().isShortLoop(1, 2));
+            assertEquals(3, loaded.getSuccessionCounts().count(0, 1));
+            assertEquals(1, loaded.getShortLoopCounts().count(0, 1));
+            assertEquals(4, loaded.getVariants().size());
+            assertEquals(2, loaded.getVariants().count(0));
+        } finally {
+            Files.delete(snapshotFile);
+        }
+    }
+
+    @Test
+    void mergedPartialsGivePairsOfConcatenatedLog() throws IOException {
+        Path first = Files.createTempFile("log-miner", ".partial");
+        Path second = Files.createTempFile("log-miner", ".partial");
+        Path third = Files.createTempFile("log-miner", ".partial");
+        Path firstTwo = Files.createTempFile("log-miner", ".partial");
+        try {
+            new FootprintSnapshot(accumulate("abac", "acbd"), 10, 0).write(first);
+            new FootprintSnapshot(accumulate("aed", "xyz"), 8, 0).write(second);
+            new FootprintSnapshot(accumulate("abcd"), 5, 0).write(third);
+            ActivityRelationsBuilder builder = new ActivityRelationsBuilder();
+            List<EntryPair> expected = builder.findMaximumRelationsBasedOnLog(accumulate("abac", "acbd", "aed", "xyz", "abcd"));
+
+            FootprintSnapshot merged = FootprintSnapshot.merge(List.of(first, second, third));
+            assertEquals(23, merged.getOffset());
+            assertEquals(5, merged.getAccumulator().getCasesCount());
+            assertEquals(expected, builder.findMaximumRelationsBasedOnLog(merged.getAccumulator()));
+
+            FootprintSnapshot.merge(List.of(first, second)).write(firstTwo);
+            FootprintAccumulator stepwise = FootprintSnapshot.merge(List.of(firstTwo, third)).getAccumulator();
+            assertEquals(expected.toString(), builder.findMaximumRelationsBasedOnLog(stepwise).toString());
+        } finally {
+            Files.delete(first);
+            Files.delete(second);
+            Files.delete(third);
+            Files.delete(firstTwo);
+        }
+    }
+
+    @Test
+    void corruptedSnapshotIsRejected() throws IOException {
+        Path snapshotFile = Files.createTempFile("log-miner", ".snapshot");
+        try {
+            new FootprintSnapshot(accumulate("abc"), 4, 7).write(snapshotFile);
+
+            byte[] content = Files.readAllBytes(snapshotFile);
+            content[content.length / 2] ^= 1;
+            Files.write(snapshotFile, content);
+
+            assertThrows(IOException.class, () -> FootprintSnapshot.read(snapshotFile));
+        } finally {
+            Files.delete(snapshotFile);
+        }
+    }
+
+    @Test
+    void onlyAppendedLogMatchesSnapshot() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            Files.write(logFile, "abc\nab\n".getBytes(StandardCharsets.UTF_8));
+            FootprintSnapshot snapshot = new FootprintSnapshot(accumulate("abc", "ab"), 7,
+                    FootprintSnapshot.logChecksum(logFile, 7));
+
+            Files.write(logFile, "ba\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            assertTrue(snapshot.matches(logFile));
+
+            Files.write(logFile, "abd\nab\nba\n".getBytes(StandardCharsets.UTF_8));
+            assertFalse(snapshot.matches(logFile));
+
+            Files.write(logFile, "abc\n".getBytes(StandardCharsets.UTF_8));
+            assertFalse(snapshot.matches(logFile));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    void snapshotOfOtherTokenizerIsNotResumed() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        Path snapshotFile = Files.createTempFile("log-miner", ".snapshot");
+        try {
+            Files.write(logFile, "ab c\n".getBytes(StandardCharsets.UTF_8));
+            new FootprintSnapshot(accumulate("ab c"), 5, FootprintSnapshot.logChecksum(logFile, 5)).write(snapshotFile);
+
+            FootprintSnapshot snapshot = FootprintSnapshot.read(snapshotFile);
+            assertEquals("char", snapshot.getTokenizer().toString());
+            assertTrue(snapshot.matches(logFile, Tokenizer.parse("char")));
+            assertFalse(snapshot.matches(logFile, Tokenizer.whitespace()));
+
+            new FootprintSnapshot(accumulate("ab c"), 5, FootprintSnapshot.logChecksum(logFile, 5), Tokenizer.parse("delimited")).write(snapshotFile);
+            assertTrue(FootprintSnapshot.read(snapshotFile).matches(logFile, Tokenizer.parse("delimited:,")));
+        } finally {
+            Files.delete(logFile);
+            Files.delete(snapshotFile);
+        }
+    }
+
+    @Test
+    void lastLineWithoutSeparatorIsLeftForNextRun() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            Files.write(logFile, "a\nxab".getBytes(StandardCharsets.UTF_8));
+            long length = FootprintSnapshot.completeLength(logFile);
+            assertEquals(2, length);
+
+            FootprintAccumulator prefix = new MappedLogReader().readFootprint(logFile, length);
+            FootprintSnapshot snapshot = new FootprintSnapshot(prefix, length, FootprintSnapshot.logChecksum(logFile, length));
+
+            Files.write(logFile, "c\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            assertTrue(snapshot.matches(logFile));
+            LogFollower follower = new LogFollower(logFile, 0, snapshot.getAccumulator(), snapshot.getOffset());
+            follower.readAppended();
+
+            FootprintAccumulator resumed = follower.getAccumulator();
+            assertEquals(2, resumed.getCasesCount());
+            assertTrue(resumed.getFootprint().follows(resumed.getDictionary().idOf(new Activity("b")), resumed.getDictionary().idOf(new Activity("c"))));
+
+            Files.write(logFile, "ab\r".getBytes(StandardCharsets.UTF_8));
+            assertEquals(0, FootprintSnapshot.completeLength(logFile));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+}
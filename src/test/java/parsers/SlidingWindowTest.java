@@ -0,0 +1,83 @@
+package parsers;
+
+import org.junit.jupiter.api.Test;
+import structures.EntryPair;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowTest {
+    @Test
+    void successionLeavesWithLastCaseContainingIt() {
+        SlidingWindow window = new SlidingWindow(2, 0);
+        FootprintAccumulator accumulator = new FootprintAccumulator();
+        accumulator.setTraceSink(window);
+
+        accumulator.acceptCase("ab");
+        accumulator.acceptCase("ab");
+        accumulator.acceptCase("ac");
+        assertTrue(window.getFootprint().follows(0, 1));
+        assertTrue(window.getFootprint().follows(0, 2));
+
+        accumulator.acceptCase("ac");
+        assertEquals(2, window.size());
+        assertFalse(window.getFootprint().follows(0, 1));
+        assertTrue(window.getFootprint().follows(0, 2));
+        assertTrue(accumulator.getFootprint().follows(0, 1));
+    }
+
+    @Test
+    void pairsAreEnumeratedOnlyWhenFootprintChanged() {
+        SlidingWindow window = new SlidingWindow(2, 0);
+        FootprintAccumulator accumulator = new FootprintAccumulator();
+        accumulator.setTraceSink(window);
+
+        accumulator.acceptCase("abd");
+        accumulator.acceptCase("acd");
+        List<EntryPair> pairs = window.maximalPairs();
+        long changes = window.getChangesCount();
+
+        accumulator.acceptCase("abd");
+        accumulator.acceptCase("acd");
+        assertEquals(changes, window.getChangesCount());
+        assertSame(pairs, window.maximalPairs());
+
+        accumulator.acceptCase("ad");
+        accumulator.acceptCase("ad");
+        assertNotEquals(changes, window.getChangesCount());
+        assertEquals("[({a}, {d})]", window.maximalPairs().toString());
+    }
+
+    @Test
+    void shortLoopLeavesWithLastCaseContainingIt() {
+        SlidingWindow window = new SlidingWindow(1, 0);
+        FootprintAccumulator accumulator = new FootprintAccumulator();
+        accumulator.setTraceSink(window);
+
+        accumulator.acceptCase("aba");
+        assertTrue(window.getFootprint().isShortLoop(0, 1));
+
+        accumulator.acceptCase("ab");
+        assertFalse(window.getFootprint().isShortLoop(0, 1));
+        assertTrue(accumulator.getFootprint().isShortLoop(0, 1));
+    }
+
+    @Test
+    void oldCasesExpire() {
+        SlidingWindow window = new SlidingWindow(0, 1000);
+        FootprintAccumulator accumulator = new FootprintAccumulator();
+        int[] trace = {0, 1};
+        accumulator.getDictionary().intern('a');
+        accumulator.getDictionary().intern('b');
+
+        window.accept(accumulator.getDictionary(), trace, 2, 5000);
+        window.expire(5999);
+        assertTrue(window.getFootprint().follows(0, 1));
+
+        window.expire(6000);
+        assertEquals(0, window.size());
+        assertFalse(window.getFootprint().follows(0, 1));
+        assertTrue(window.maximalPairs().isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package parsers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parsers.TestLogs.accumulate;
+
+class SuccessionThresholdTest {
+    private String pairs(FootprintAccumulator log, String threshold) {
+        return new ActivityRelationsBuilder().findMaximumRelationsBasedOnLog(log, SuccessionThreshold.parse(threshold)).toString();
+    }
+
+    @Test
+    void noisyCaseDoesNotTurnCausalityIntoParallel() {
+        FootprintAccumulator log = accumulate("abcd", "abcd", "abcd", "acbd", "abcd");
+
+        assertEquals(4, log.getSuccessionCounts().count(1, 2));
+        assertEquals(1, log.getSuccessionCounts().count(2, 1));
+        assertEquals("[({a}, {b}), ({a}, {c}), ({b}, {d}), ({c}, {d})]", pairs(log, "absolute:1"));
+        assertEquals("[({a}, {b}), ({b}, {c}), ({c}, {d})]", pairs(log, "absolute:2"));
+        assertEquals("[({a}, {b}), ({b}, {c}), ({c}, {d})]", pairs(log, "relative:0.5"));
+    }
+
+    @Test
+    void dependencyDropsReversalOfStrongCausality() {
+        FootprintAccumulator log = accumulate("ab", "ab", "ab", "ab", "ab", "ba", "cd", "dc");
+
+        // a => b is 4/7, so b > a is dropped at 0.5 while at 0.6 a and b stay parallel like c and d
+        assertEquals("[]", pairs(log, "absolute:1"));
+        assertEquals("[({a}, {b})]", pairs(log, "dependency:0.5"));
+        assertEquals("[]", pairs(log, "dependency:0.6"));
+        assertEquals(0.0, SuccessionThreshold.dependency(2, 2));
+        assertEquals(0.5, SuccessionThreshold.loopDependency(1));
+    }
+
+    @Test
+    void dependencyDropsSingleSuccessionWithoutReversal() {
+        FootprintAccumulator log = accumulate("ab", "ab", "ab", "ab", "ab", "ab", "ab", "ab", "ab", "ab", "ac");
+
+        // a => b is 10/11, a => c seen once is only 1/2
+        assertEquals("[({a}, {b, c})]", pairs(log, "absolute:1"));
+        assertEquals("[({a}, {b})]", pairs(log, "dependency:0.9"));
+        assertEquals("[({a}, {b, c})]", pairs(log, "dependency:0.5"));
+    }
+
+    @Test
+    void dependencyKeepsParallelBlock() {
+        FootprintAccumulator log = accumulate("abcd", "acbd");
+
+        // b > c and c > b are balanced, so b and c stay parallel instead of becoming a choice
+        assertEquals("[({a}, {b}), ({a}, {c}), ({b}, {d}), ({c}, {d})]", pairs(log, "dependency:0.3"));
+        assertEquals(pairs(log, "absolute:1"), pairs(log, "dependency:0.5"));
+    }
+
+    @Test
+    void dependencyKeepsLengthTwoLoop() {
+        assertEquals("[({x, b}, {a}), ({a}, {b, y})]", pairs(accumulate("xababay", "xababay"), "dependency:0.5"));
+
+        // a => b is 4/11, so b > a is dropped as reversal, but loop a > b > a with 3 / 4 brings it back
+        FootprintAccumulator log = accumulate("aba", "aba", "aba", "ab", "ab", "ab", "ab");
+        assertEquals("[({a}, {b}), ({b}, {a})]", pairs(log, "dependency:0.3"));
+        assertEquals(pairs(log, "absolute:1"), pairs(log, "dependency:0.3"));
+        assertEquals("[]", pairs(log, "dependency:0.8"));
+    }
+
+    @Test
+    void invalidThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SuccessionThreshold.parse("relative:2"));
+        assertThrows(IllegalArgumentException.class, () -> SuccessionThreshold.parse("dependency:0"));
+        assertThrows(IllegalArgumentException.class, () -> SuccessionThreshold.parse("median:1"));
+        assertThrows(IllegalArgumentException.class, () -> SuccessionThreshold.parse("absolute:x"));
+    }
+}
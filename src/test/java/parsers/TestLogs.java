@@ -0,0 +1,21 @@
+package parsers;
+
+final class TestLogs {
+    private TestLogs() {
+    }
+
+    /**
+     * Footprint of the cases with counts and variants, as if they were read from a log file
+     *
+     * @param cases Case records with single character activities
+     * @return Accumulator with all cases
+     */
+    static FootprintAccumulator accumulate(String... cases) {
+        FootprintAccumulator accumulator = new FootprintAccumulator(true);
+        for (String caseRecord : cases) {
+            accumulator.acceptCase(caseRecord);
+        }
+
+        return accumulator;
+    }
+}
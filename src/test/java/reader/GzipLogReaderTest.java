@@ -0,0 +1,97 @@
+package reader;
+
+import org.junit.jupiter.api.Test;
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipLogReaderTest {
+    private static byte[] compress(String content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private static void assertSameFootprint(FootprintAccumulator expected, FootprintAccumulator actual) {
+        assertEquals(expected.getCasesCount(), actual.getCasesCount());
+        assertEquals(expected.getDictionary().size(), actual.getDictionary().size());
+        for (int predecessor = 0; predecessor < expected.getDictionary().size(); predecessor++) {
+            assertEquals(expected.getDictionary().name(predecessor), actual.getDictionary().name(predecessor));
+            for (int successor = 0; successor < expected.getDictionary().size(); successor++) {
+                assertEquals(expected.getFootprint().follows(predecessor, successor),
+                        actual.getFootprint().follows(predecessor, successor));
+            }
+        }
+    }
+
+    /**
+     * Tiny batches - names, multi-byte characters and cases cross batch boundaries in every stage
+     */
+    @Test
+    void compressedLogGivesSameFootprintAsPlainLog() throws IOException {
+        Random random = new Random(7);
+        StringBuilder log = new StringBuilder();
+        for (int caseNumber = 0; caseNumber < 2000; caseNumber++) {
+            for (int position = random.nextInt(8); position >= 0; position--) {
+                log.append(random.nextInt(4) == 0 ? "\u0105" : String.valueOf((char) ('a' + random.nextInt(12))));
+            }
+            log.append(caseNumber % 3 == 0 ? "\r\n" : "\n");
+        }
+
+        MappedLogReader plainReader = new MappedLogReader();
+        FootprintAccumulator expected = plainReader.readFootprint(
+                ByteBuffer.wrap(log.toString().getBytes(StandardCharsets.UTF_8)));
+        FootprintAccumulator actual = new GzipLogReader(16, 2).readFootprint(new ByteArrayInputStream(compress(log.toString())));
+
+        assertSameFootprint(expected, actual);
+    }
+
+    @Test
+    void gzipFileIsDetectedByContent() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            byte[] first = compress("send, check\n");
+            byte[] second = compress("send, pay, check\n");
+            byte[] members = new byte[first.length + second.length];
+            System.arraycopy(first, 0, members, 0, first.length);
+            System.arraycopy(second, 0, members, first.length, second.length);
+            Files.write(logFile, members);
+
+            MappedLogReader reader = new MappedLogReader();
+            reader.setTokenizer(Tokenizer.delimited(','));
+            reader.setTrackVariants(true);
+            FootprintAccumulator response = reader.readFootprint(logFile);
+
+            assertTrue(GzipLogReader.isGzip(logFile));
+            assertEquals(2, response.getCasesCount());
+            assertEquals(2, response.getVariants().size());
+            assertEquals("pay", response.getDictionary().name(2));
+            assertTrue(response.getFootprint().follows(0, 2));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    void truncatedGzipIsRejected() throws IOException {
+        byte[] compressed = compress("abc\nabd\n");
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 6);
+
+        assertThrows(IOException.class, () -> new GzipLogReader().readFootprint(new ByteArrayInputStream(truncated)));
+    }
+}
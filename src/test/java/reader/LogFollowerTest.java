@@ -0,0 +1,80 @@
+package reader;
+
+import org.junit.jupiter.api.Test;
+import parsers.SlidingWindow;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogFollowerTest {
+    @Test
+    void onlyAppendedCasesChangeFootprint() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            append(logFile, "abc\n");
+            LogFollower follower = new LogFollower(logFile, 10);
+
+            assertTrue(follower.readAppended());
+            assertFalse(follower.readAppended());
+
+            append(logFile, "abc\nab\n");
+            assertFalse(follower.readAppended());
+            assertEquals(3, follower.getAccumulator().getCasesCount());
+
+            append(logFile, "cb");
+            assertTrue(follower.readAppended());
+            append(logFile, "a\n");
+            assertTrue(follower.readAppended());
+            assertTrue(follower.getAccumulator().getFootprint().follows(1, 0));
+            assertEquals(4, follower.getAccumulator().getCasesCount());
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    void truncatedLogIsReadAgain() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            append(logFile, "abc\nabc\n");
+            LogFollower follower = new LogFollower(logFile, 10);
+            follower.readAppended();
+
+            Files.write(logFile, "ba\n".getBytes(StandardCharsets.UTF_8));
+            assertTrue(follower.readAppended());
+            assertEquals(1, follower.getAccumulator().getCasesCount());
+            assertEquals("b", follower.getAccumulator().getDictionary().name(0));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    private void append(Path logFile, String content) throws IOException {
+        Files.write(logFile, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+    @Test
+    void finishedLastLineReachesTraceSink() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            append(logFile, "ab\nbc");
+            SlidingWindow window = new SlidingWindow(10, 0);
+            LogFollower follower = new LogFollower(logFile, 10);
+            follower.getAccumulator().setTraceSink(window);
+
+            follower.readAppended();
+            assertEquals(1, window.size());
+
+            follower.finish();
+            assertEquals(2, window.size());
+            assertEquals("[({a}, {b}), ({b}, {c})]", window.maximalPairs().toString());
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package reader;
+
+import org.junit.jupiter.api.Test;
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedLogReaderTest {
+    @Test
+    void linesAreSplitOnAllLineSeparators() throws IOException {
+        FootprintAccumulator response = readFootprint("ab\r\nbc\rcd\n d e", 4);
+
+        assertEquals(4, response.getCasesCount());
+        assertEquals(5, response.getDictionary().size());
+        assertTrue(response.getFootprint().follows(0, 1));
+        assertTrue(response.getFootprint().follows(3, 4));
+        assertFalse(response.getFootprint().follows(1, 3));
+    }
+
+    /**
+     * Window smaller than a single multi-byte character - decoder keeps its state between windows
+     */
+    @Test
+    void multiByteActivitiesAcrossWindows() throws IOException {
+        FootprintAccumulator response = readFootprint("\u0105\u0107\n\u0107\u0105\n", 1);
+
+        assertEquals(2, response.getCasesCount());
+        assertEquals("\u0105", response.getDictionary().name(0));
+        assertEquals("\u0107", response.getDictionary().name(1));
+        assertTrue(response.getFootprint().follows(0, 1));
+        assertTrue(response.getFootprint().follows(1, 0));
+    }
+
+    @Test
+    void sameFootprintAsScanner() throws IOException {
+        String log = "abef\nabecdbf\nabcedbf\nabcdebf\naebcdbf\n";
+        FootprintAccumulator mapped = readFootprint(log, 3);
+        FootprintAccumulator scanned = new ProcessLogReader().readFootprint(new java.util.Scanner(log));
+
+        assertEquals(scanned.getCasesCount(), mapped.getCasesCount());
+        assertEquals(scanned.getDictionary().size(), mapped.getDictionary().size());
+        for (int first = 0; first < scanned.getDictionary().size(); first++) {
+            for (int second = 0; second < scanned.getDictionary().size(); second++) {
+                assertEquals(scanned.getFootprint().follows(first, second), mapped.getFootprint().follows(first, second));
+            }
+        }
+    }
+
+    /**
+     * Names split between windows are collected in the scanner buffer
+     */
+    @Test
+    void delimitedNamesAcrossWindows() throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            Files.write(logFile, "start,r\u0105czka,end\r\nstart,end".getBytes(StandardCharsets.UTF_8));
+            MappedLogReader reader = new MappedLogReader(3);
+            reader.setTokenizer(Tokenizer.delimited(','));
+            FootprintAccumulator response = reader.readFootprint(logFile);
+
+            assertEquals(2, response.getCasesCount());
+            assertEquals(3, response.getDictionary().size());
+            assertEquals("r\u0105czka", response.getDictionary().name(1));
+            assertTrue(response.getFootprint().follows(0, 2));
+            assertFalse(response.getFootprint().follows(2, 0));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    private FootprintAccumulator readFootprint(String content, long windowSize) throws IOException {
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            Files.write(logFile, content.getBytes(StandardCharsets.UTF_8));
+            return new MappedLogReader(windowSize).readFootprint(logFile);
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package reader;
+
+import org.junit.jupiter.api.Test;
+import parsers.FootprintAccumulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelLogReaderTest {
+    /**
+     * Partial footprints merged in log order give the same ids and successions as sequential read
+     */
+    @Test
+    void sameFootprintAsSequentialRead() throws IOException {
+        Random random = new Random(7);
+        StringBuilder log = new StringBuilder();
+        for (int caseRecord = 0; caseRecord < 500; caseRecord++) {
+            int length = 1 + random.nextInt(10);
+            for (int position = 0; position < length; position++) {
+                log.append((char) ('a' + random.nextInt(20)));
+            }
+            log.append(caseRecord % 3 == 0 ? "\r\n" : "\n");
+        }
+
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            Files.write(logFile, log.toString().getBytes(StandardCharsets.UTF_8));
+            MappedLogReader sequentialReader = new MappedLogReader();
+            ParallelLogReader parallelReader = new ParallelLogReader(4, 16);
+            sequentialReader.setTrackVariants(true);
+            parallelReader.setTrackVariants(true);
+
+            FootprintAccumulator sequential = sequentialReader.readFootprint(logFile);
+            FootprintAccumulator parallel = parallelReader.readFootprint(logFile);
+
+            assertEquals(500, parallel.getCasesCount());
+            assertEquals(500, parallel.getVariants().totalCount());
+            assertEquals(sequential.getVariants().size(), parallel.getVariants().size());
+            assertEquals(sequential.getDictionary().size(), parallel.getDictionary().size());
+            for (int first = 0; first < sequential.getDictionary().size(); first++) {
+                assertEquals(sequential.getDictionary().name(first), parallel.getDictionary().name(first));
+
+                for (int second = 0; second < sequential.getDictionary().size(); second++) {
+                    assertEquals(sequential.getFootprint().follows(first, second), parallel.getFootprint().follows(first, second));
+                }
+            }
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package reader;
 
 import org.junit.jupiter.api.Test;
+import parsers.FootprintAccumulator;
+import parsers.Tokenizer;
 import structures.Activity;
+import structures.ActivityDictionary;
+import structures.VariantTable;
 
 import java.util.List;
 import java.util.Scanner;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class ProcessLogReaderTest {
     @Test
@@ -17,6 +21,28 @@ class ProcessLogReaderTest {
         assertEquals(3, response.size());
     }
 
+    @Test
+    void variantsKeepNumberOfOccurrences() {
+        Scanner logFile = new Scanner("abc\nab\nabc\na b c\n");
+        VariantTable response = new ProcessLogReader().readVariants(logFile, new ActivityDictionary());
+
+        assertEquals(2, response.size());
+        assertEquals(4, response.totalCount());
+        assertEquals(3, response.count(0));
+        assertEquals(1, response.count(1));
+        assertArrayEquals(new int[]{0, 1}, response.trace(1));
+    }
+
+    @Test
+    void streamedFootprintCountsVariants() {
+        ProcessLogReader reader = new ProcessLogReader();
+        reader.setTrackVariants(true);
+        FootprintAccumulator response = reader.readFootprint(new Scanner("ab\nba\nab\n"));
+
+        assertEquals(2, response.getVariants().size());
+        assertEquals(2, response.getVariants().count(0));
+    }
+
     @Test
     void allActivitiesHaveNonEmptyNames() {
         Scanner logFile = new Scanner(" a b ");
@@ -25,4 +51,75 @@ class ProcessLogReaderTest {
         assertEquals("a", response.get(0).activityName());
         assertEquals("b", response.get(1).activityName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void activitiesAreEncodedAsDenseIds() {
+        ActivityDictionary dictionary = new ActivityDictionary();
+        List<int[]> response = new ProcessLogReader().readEncodedLog(new Scanner("b a b"), dictionary);
+
+        assertArrayEquals(new int[]{0, 1, 0}, response.get(0));
+        assertEquals("b", dictionary.name(0));
+        assertEquals("a", dictionary.name(1));
+    }
+
+    @Test
+    void sameActivityIsSharedBetweenCases() {
+        List<List<Activity>> response = new ProcessLogReader().readProcessLog(new Scanner("ab\nba"));
+
+        assertSame(response.get(0).get(0), response.get(1).get(1));
+    }
+
+    @Test
+    void streamedFootprintContainsActivitiesAndSuccessions() {
+        Scanner logFile = new Scanner(" a b c\nab\n");
+        FootprintAccumulator response = new ProcessLogReader().readFootprint(logFile);
+
+        assertEquals(2, response.getCasesCount());
+        assertEquals(3, response.getDictionary().size());
+        assertEquals("a", response.getDictionary().name(0));
+        assertTrue(response.getFootprint().follows(0, 1));
+        assertTrue(response.getFootprint().follows(1, 2));
+        assertFalse(response.getFootprint().follows(0, 2));
+    }
+
+    @Test
+    void streamedFootprintGrowsWithAlphabet() {
+        StringBuilder logFile = new StringBuilder();
+        for (char name = '\u0100'; name < '\u0100' + 100; name++) {
+            logFile.append(name);
+        }
+        FootprintAccumulator response = new ProcessLogReader().readFootprint(new Scanner(logFile.toString()));
+
+        assertEquals(100, response.getDictionary().size());
+        assertTrue(response.getFootprint().follows(0, 1));
+        assertTrue(response.getFootprint().follows(98, 99));
+        assertFalse(response.getFootprint().follows(99, 98));
+    }
+
+    @Test
+    void delimitedActivitiesHaveMultiCharacterNames() {
+        ProcessLogReader reader = new ProcessLogReader();
+        reader.setTokenizer(Tokenizer.parse("delimited:;"));
+        ActivityDictionary dictionary = new ActivityDictionary();
+        List<int[]> response = reader.readEncodedLog(new Scanner("register; check invoice ;pay\nregister;;pay\n"), dictionary);
+
+        assertEquals(3, dictionary.size());
+        assertEquals("check invoice", dictionary.name(1));
+        assertArrayEquals(new int[]{0, 1, 2}, response.get(0));
+        assertArrayEquals(new int[]{0, 2}, response.get(1));
+    }
+
+    @Test
+    void whitespaceTokenizerGivesSameIdsAsSingleCharacters() {
+        ProcessLogReader reader = new ProcessLogReader();
+        reader.setTokenizer(Tokenizer.whitespace());
+        FootprintAccumulator response = reader.readFootprint(new Scanner("a bc\tb  a\nbc a\n"));
+
+        assertEquals(3, response.getDictionary().size());
+        assertEquals(0, response.getDictionary().intern('a'));
+        assertEquals(1, response.getDictionary().intern("bc"));
+        assertTrue(response.getFootprint().follows(1, 2));
+        assertTrue(response.getFootprint().follows(1, 0));
+        assertFalse(response.getFootprint().follows(0, 2));
+    }
+}
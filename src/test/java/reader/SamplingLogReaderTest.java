@@ -0,0 +1,75 @@
+package reader;
+
+import org.junit.jupiter.api.Test;
+import parsers.FootprintAccumulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingLogReaderTest {
+    /**
+     * Log with 1000 cases of two variants, then 1000 cases with new activity
+     */
+    private Path writeLog() throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (int caseRecord = 0; caseRecord < 2000; caseRecord++) {
+            log.append(caseRecord >= 1000 ? "abd\n" : caseRecord % 2 == 0 ? "abc\n" : "acb\n");
+        }
+
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        Files.write(logFile, log.toString().getBytes(StandardCharsets.UTF_8));
+        return logFile;
+    }
+
+    @Test
+    void readingStopsWhenFootprintConverges() throws IOException {
+        Path logFile = writeLog();
+        try {
+            SamplingLogReader.Sample sample = new SamplingLogReader(100, 0, 1).readSample(logFile);
+
+            assertTrue(sample.isConverged());
+            assertEquals(2, sample.getConvergedAtCase());
+            assertEquals(8, sample.getConvergedAtByte());
+            assertEquals(102, sample.getCasesCount());
+            assertEquals(102 * 4, sample.getBytesRead());
+            assertEquals(3, sample.getAccumulator().getDictionary().size());
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    void regionsCoverTheWholeLog() throws IOException {
+        Path logFile = writeLog();
+        try {
+            SamplingLogReader.Sample sample = new SamplingLogReader(0, 600, 2, 64).readSample(logFile);
+            FootprintAccumulator exact = new MappedLogReader().readFootprint(logFile);
+
+            assertTrue(sample.isConverged());
+            assertTrue(sample.getBytesRead() < sample.getLogSize());
+            assertEquals(exact.getDictionary().size(), sample.getAccumulator().getDictionary().size());
+            assertTrue(sample.getAccumulator().getFootprint().follows(1, 3));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    void logEndsBeforeFootprintConverges() throws IOException {
+        Path logFile = writeLog();
+        try {
+            SamplingLogReader.Sample sample = new SamplingLogReader(10000, 0, 3, 100).readSample(logFile);
+
+            assertFalse(sample.isConverged());
+            assertEquals(2000, sample.getCasesCount());
+            assertEquals(sample.getLogSize(), sample.getBytesRead());
+            assertTrue(sample.getConvergedAtCase() < 100);
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+}
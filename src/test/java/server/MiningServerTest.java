@@ -0,0 +1,88 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MiningServerTest {
+    @Test
+    void sameLogIsMinedOnceForPathAndInlineRequests() throws IOException {
+        MiningServer server = new MiningServer(0, 2, 8);
+        server.start();
+        Path logFile = Files.createTempFile("log-miner", ".log");
+        try {
+            String log = "abc\nacb\n";
+            Files.write(logFile, log.getBytes(StandardCharsets.UTF_8));
+
+            String inline = request(server, "POST", "/mine", log);
+            String byPath = request(server, "GET", "/mine?path=" + URLEncoder.encode(logFile.toString(), StandardCharsets.UTF_8), null);
+            String again = request(server, "GET", "/mine?path=" + URLEncoder.encode(logFile.toString(), StandardCharsets.UTF_8), null);
+
+            assertEquals("({a}, {b})\n({a}, {c})\n", inline);
+            assertEquals(inline, byPath);
+            assertEquals(inline, again);
+            assertEquals(1, server.getCache().getMisses());
+            assertEquals(2, server.getCache().getHits());
+            assertTrue(request(server, "GET", "/stats", null).startsWith("{\"cache\":{\"hits\":2,\"misses\":1,"));
+        } finally {
+            server.stop();
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    void equivalentTokenizersShareCacheEntry() throws IOException {
+        MiningServer server = new MiningServer(0, 1, 8);
+        server.start();
+        try {
+            String log = "a,b\na,c\n";
+            String delimited = request(server, "POST", "/mine?tokenizer=delimited", log);
+            String comma = request(server, "POST", "/mine?tokenizer=delimited%3A%2C", log);
+
+            assertEquals("({a}, {b, c})\n", delimited);
+            assertEquals(delimited, comma);
+            assertEquals(1, server.getCache().getMisses());
+            assertEquals(1, server.getCache().getHits());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void missingLogIsReported() throws IOException {
+        MiningServer server = new MiningServer(0, 1, 8);
+        server.start();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + "/mine?path=missing.log").openConnection();
+            assertEquals(404, connection.getResponseCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private String request(MiningServer server, String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream input = connection.getInputStream()) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ResultCache cache = new ResultCache(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals("1", cache.get("a"));
+
+        cache.put("c", "3");
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+        assertEquals("{\"hits\":3,\"misses\":1,\"evictions\":1,\"size\":2,\"capacity\":2}", cache.toJson());
+    }
+}
@@ -0,0 +1,65 @@
+package structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseFootprintTest {
+    @Test
+    void sameRelationsAsDenseFootprint() {
+        Random random = new Random(7);
+        FootprintMatrix dense = new FootprintMatrix(70);
+        SparseFootprint sparse = new SparseFootprint(10);
+        sparse.ensureSize(70);
+
+        for (int succession = 0; succession < 400; succession++) {
+            int predecessor = random.nextInt(70);
+            int successor = random.nextInt(70);
+            assertEquals(dense.addSuccession(predecessor, successor), sparse.addSuccession(predecessor, successor));
+        }
+
+        for (int first = 0; first < 70; first++) {
+            for (int second = 0; second < 70; second++) {
+                assertEquals(dense.relation(first, second), sparse.relation(first, second));
+                assertEquals(dense.nextSuccessor(first, second), sparse.nextSuccessor(first, second));
+                assertEquals(dense.nextPredecessor(first, second), sparse.nextPredecessor(first, second));
+            }
+        }
+    }
+
+    @Test
+    void copyKeepsShortLoops() {
+        FootprintMatrix dense = new FootprintMatrix(5);
+        dense.addSuccession(1, 3);
+        dense.addSuccession(3, 1);
+        dense.addShortLoop(3, 1);
+
+        SparseFootprint sparse = SparseFootprint.copyOf(dense);
+        assertTrue(sparse.isShortLoop(1, 3));
+        assertTrue(sparse.isCausality(1, 3));
+        assertTrue(sparse.isCausality(3, 1));
+        assertFalse(sparse.isParallel(1, 3));
+
+        assertTrue(sparse.removeShortLoop(1, 3));
+        assertEquals(-1, sparse.nextShortLoop(3, 0));
+        assertTrue(sparse.isParallel(1, 3));
+    }
+
+    @Test
+    void bigAlphabetIsStoredSparse() {
+        Footprint footprint = Footprint.forAlphabet(Footprint.SPARSE_THRESHOLD + 1);
+        assertTrue(footprint instanceof SparseFootprint);
+
+        footprint.ensureSize(100_000);
+        footprint.addSuccession(99_999, 5);
+        footprint.addSuccession(99_999, 3);
+
+        assertEquals(2, ((SparseFootprint) footprint).successionsCount());
+        assertEquals(3, footprint.nextSuccessor(99_999, 0));
+        assertEquals(99_999, footprint.nextPredecessor(5, 0));
+        assertTrue(footprint.isChoice(4, 5));
+        assertTrue(footprint.isCausality(99_999, 3));
+    }
+}
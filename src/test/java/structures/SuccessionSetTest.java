@@ -0,0 +1,58 @@
+package structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuccessionSetTest {
+    @Test
+    void reversedSuccessionIsDifferentKey() {
+        SuccessionSet successions = new SuccessionSet();
+
+        assertTrue(successions.add(1, 2));
+        assertFalse(successions.add(1, 2));
+        assertTrue(successions.contains(1, 2));
+        assertFalse(successions.contains(2, 1));
+        assertFalse(successions.contains(-1, 2));
+        assertEquals(1, successions.size());
+        assertNotEquals(SuccessionSet.key(1, 2), SuccessionSet.key(2, 1));
+        assertEquals(2, SuccessionSet.successor(SuccessionSet.key(1, 2)));
+    }
+
+    @Test
+    void sameContentAsHashSet() {
+        Random random = new Random(7);
+        SuccessionSet successions = new SuccessionSet();
+        Set<Long> expected = new HashSet<>();
+
+        for (int succession = 0; succession < 5000; succession++) {
+            int predecessor = random.nextInt(300);
+            int successor = random.nextInt(300);
+            assertEquals(expected.add(SuccessionSet.key(predecessor, successor)), successions.add(predecessor, successor));
+        }
+
+        assertEquals(expected.size(), successions.size());
+        for (int predecessor = 0; predecessor < 300; predecessor++) {
+            for (int successor = 0; successor < 300; successor++) {
+                assertEquals(expected.contains(SuccessionSet.key(predecessor, successor)), successions.contains(predecessor, successor));
+            }
+        }
+    }
+
+    @Test
+    void activityViewIteratesAllSuccessions() {
+        ActivityDictionary dictionary = new ActivityDictionary();
+        SuccessionSet successions = new SuccessionSet();
+        successions.add(dictionary.intern('a'), dictionary.intern('b'));
+        successions.add(dictionary.intern('b'), dictionary.intern('a'));
+
+        Set<ActivityDirectSuccession> view = successions.asActivitySet(dictionary);
+        assertEquals(2, new HashSet<>(view).size());
+        assertTrue(view.contains(new ActivityDirectSuccession(new Activity("b"), new Activity("a"))));
+        assertFalse(view.contains(new ActivityDirectSuccession(new Activity("a"), new Activity("c"))));
+    }
+}
@@ -0,0 +1,80 @@
+package structures;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariantTableTest {
+    private static int[] trace(int variant) {
+        int[] trace = new int[1 + variant % 7];
+        for (int position = 0; position < trace.length; position++) {
+            trace[position] = variant + position;
+        }
+
+        return trace;
+    }
+
+    @Test
+    void variantsAreCountedInOrderOfFirstAppearance() {
+        VariantTable variants = new VariantTable();
+
+        assertEquals(0, variants.add(new int[]{0, 1, 2}, 3));
+        assertEquals(1, variants.add(new int[]{0, 2, 1}, 3));
+        assertEquals(0, variants.add(new int[]{0, 1, 2, 9}, 3, 4));
+
+        assertEquals(2, variants.size());
+        assertEquals(6, variants.totalCount());
+        assertEquals(5, variants.count(0));
+        assertArrayEquals(new int[]{0, 2, 1}, variants.trace(1));
+        assertEquals(-1, variants.find(new int[]{1, 2}, 2));
+        assertFalse(variants.isSpilled());
+    }
+
+    @Test
+    void variantsOverBudgetAreSpilledToFile() {
+        VariantTable variants = new VariantTable(64 * 1024);
+        try {
+            for (int repeat = 0; repeat < 2; repeat++) {
+                for (int variant = 0; variant < 20000; variant++) {
+                    int[] trace = trace(variant);
+                    assertEquals(variant, variants.add(trace, trace.length));
+                }
+            }
+
+            assertTrue(variants.isSpilled());
+            assertEquals(20000, variants.size());
+            assertEquals(40000, variants.totalCount());
+            for (int variant = 0; variant < 20000; variant += 997) {
+                assertArrayEquals(trace(variant), variants.trace(variant));
+                assertEquals(2, variants.count(variant));
+                assertEquals(variant, variants.find(trace(variant), variants.length(variant)));
+            }
+        } finally {
+            variants.close();
+        }
+    }
+
+    @Test
+    void tablesShareBudgetAndReturnItWhenClosed() {
+        // Budget of a single first chunk
+        MemoryBudget budget = new MemoryBudget(4096);
+        VariantTable first = new VariantTable(budget);
+        first.add(new int[]{0, 1}, 2);
+        assertFalse(first.isSpilled());
+        assertEquals(4096, budget.getUsed());
+
+        try (VariantTable second = new VariantTable(budget)) {
+            second.add(new int[]{1, 2}, 2);
+            assertTrue(second.isSpilled());
+
+            first.close();
+            assertEquals(0, budget.getUsed());
+        }
+
+        try (VariantTable third = new VariantTable(budget)) {
+            third.add(new int[]{1, 2}, 2);
+            assertFalse(third.isSpilled());
+        }
+        assertEquals(0, budget.getUsed());
+    }
+}